@@ -0,0 +1,44 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads how many heap bytes the current thread has allocated, using the
+ * HotSpot {@code com.sun.management.ThreadMXBean} extension. On JVMs without
+ * it {@link #isSupported()} is false and {@link #currentThreadBytes()} returns 0.
+ */
+public final class AllocationCounter {
+
+    /** HotSpot thread bean, or null when the extension is missing or disabled. */
+    private static final com.sun.management.ThreadMXBean BEAN = lookup();
+
+    private AllocationCounter() { }
+
+    /**
+     * @return true if allocation counts are available
+     */
+    public static boolean isSupported() {
+        return BEAN != null;
+    }
+
+    /**
+     * @return bytes allocated by the calling thread since it started (monotonic)
+     */
+    public static long currentThreadBytes() {
+        return BEAN == null ? 0 : BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Find the HotSpot bean and make sure allocation tracking is switched on.
+     */
+    private static com.sun.management.ThreadMXBean lookup() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (!hotspot.isThreadAllocatedMemorySupported()) return null;
+            hotspot.setThreadAllocatedMemoryEnabled(true);
+            return hotspot;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Dynamic array used as a circular buffer: element 0 lives at {@code head}
+ * and later elements wrap around the end of the backing array.
+ * Capacity is always a power of two so wrapping is a bit mask.
+ *
+ * Insert and remove shift whichever side of the index is shorter, so both
+ * ends are O(1) and the worst case is n/2 moves. The array halves when it
+ * drops below a quarter full.
+ *
+ * @param <T> element type
+ */
+public class ArrayDequeList<T> implements List<T> {
+
+    /** Smallest capacity the buffer shrinks to. */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Backing array (length is a power of two).
+     */
+    private T[] elements;
+
+    /**
+     * Physical index of element 0.
+     */
+    private int head;
+
+    /**
+     * Current number of stored elements.
+     */
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public ArrayDequeList() {
+        elements = (T[]) new Object[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Return the current number of elements (O(1)).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append an element to the end (amortized O(1)).
+     */
+    public boolean add(T element) {
+        grow(size + 1);
+        elements[slot(size)] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Append {@code count} elements with one capacity check and at most two
+     * arraycopies, split where the buffer wraps (amortized O(count)).
+     */
+    public void addAll(T[] source, int count) {
+        grow(size + count);
+        int start = slot(size);
+        int firstRun = Math.min(count, elements.length - start);
+        System.arraycopy(source, 0, elements, start, firstRun);
+        System.arraycopy(source, firstRun, elements, 0, count - firstRun);
+        size += count;
+    }
+
+    /**
+     * Insert an element at the given index, shifting the shorter side (O(min(i, n-i))).
+     */
+    public void add(int index, T element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        grow(size + 1);
+        if (index < size - index) {
+            head = (head - 1) & (elements.length - 1);   // Open a slot in front, shift prefix left
+            for (int i = 0; i < index; i++) {
+                elements[slot(i)] = elements[slot(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; i--) {         // Shift suffix right
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+        }
+        elements[slot(index)] = element;
+        size++;
+    }
+
+    /**
+     * Read and return the element at the given index (O(1)).
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return elements[slot(index)];
+    }
+
+    /**
+     * Remove and return the element at the given index, shifting the shorter side (O(min(i, n-i))).
+     */
+    public T remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        T out = elements[slot(index)];
+        if (index < size / 2) {
+            for (int i = index; i > 0; i--) {            // Shift prefix right, advance head
+                elements[slot(i)] = elements[slot(i - 1)];
+            }
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+        } else {
+            for (int i = index; i < size - 1; i++) {     // Shift suffix left
+                elements[slot(i)] = elements[slot(i + 1)];
+            }
+            elements[slot(size - 1)] = null;
+        }
+        size--;
+        shrink();
+        return out;
+    }
+
+    /**
+     * Remove all matching elements with one two-pointer compaction (O(n) total).
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            T element = elements[slot(read)];
+            if (!filter.test(element)) {
+                elements[slot(write++)] = element;
+            }
+        }
+        int removed = size - write;
+        for (int i = write; i < size; i++) {             // Avoid loitering
+            elements[slot(i)] = null;
+        }
+        size = write;
+        shrink();
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator over the elements (O(1) per step).
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Physical array slot of logical index {@code i}.
+     */
+    private int slot(int i) {
+        return (head + i) & (elements.length - 1);
+    }
+
+    /**
+     * Ensure capacity by doubling when full (O(n) only when resize happens).
+     */
+    private void grow(int requiredCapacity) {
+        if (requiredCapacity <= elements.length) {
+            return;
+        }
+        int newCapacity = elements.length * 2;
+        while (newCapacity < requiredCapacity) {
+            newCapacity *= 2;
+        }
+        resize(newCapacity);
+    }
+
+    /**
+     * Halve the capacity while the buffer is less than a quarter full.
+     */
+    private void shrink() {
+        int capacity = elements.length;
+        while (capacity > MIN_CAPACITY && size < capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity != elements.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Copy the elements, unwrapped, into a new array of {@code capacity} slots.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        T[] copy = (T[]) new Object[capacity];
+        int firstRun = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, copy, 0, firstRun);
+        System.arraycopy(elements, 0, copy, firstRun, size - firstRun);
+        elements = copy;
+        head = 0;
+    }
+
+    /**
+     * Cursor over logical indexes; remove() delegates to remove(int), after which
+     * the next element always sits at the removed index whichever side shifted.
+     */
+    private class Itr implements Iterator<T> {
+        /** Logical index of the next element to return. */
+        private int cursor;
+
+        /** Logical index of the element returned by the last next(), or -1. */
+        private int lastReturned = -1;
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public T next() {
+            if (cursor >= size) throw new NoSuchElementException();
+            lastReturned = cursor;
+            return elements[slot(cursor++)];
+        }
+
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            ArrayDequeList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+    }
+}
@@ -1,3 +1,8 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
 /**
  * Simple dynamic array with doubling growth.
  * @param <T> element type
@@ -36,6 +41,15 @@ public class ArrayList<T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append {@code count} elements with one capacity check and one arraycopy (amortized O(count)).
+     */
+    public void addAll(T[] source, int count) {
+        grow(size + count);
+        System.arraycopy(source, 0, elements, size, count);
+        size += count;
+    }
+
     /**
      * Insert an element at the given index, shifting the tail right (O(n)).
      */
@@ -70,6 +84,66 @@ public class ArrayList<T> implements List<T> {
         return out;
     }
 
+    /**
+     * Remove all matching elements with one two-pointer compaction (O(n) total).
+     * Survivors are copied down over the gaps, so each element moves at most once.
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int read = 0;
+        while (read < size && !filter.test(elements[read])) {   // Prefix of survivors stays put
+            read++;
+        }
+        if (read == size) {
+            return 0;
+        }
+        int write = read++;
+        for (; read < size; read++) {
+            T element = elements[read];
+            if (!filter.test(element)) {
+                elements[write++] = element;
+            }
+        }
+        int removed = size - write;
+        Arrays.fill(elements, write, size, null);                // Avoid loitering
+        size = write;
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator over the elements (O(1) per step).
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Cursor over the backing array; remove() shifts the tail left like remove(int).
+     */
+    private class Itr implements Iterator<T> {
+        /** Index of the next element to return. */
+        private int cursor;
+
+        /** Index of the element returned by the last next(), or -1. */
+        private int lastReturned = -1;
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public T next() {
+            if (cursor >= size) throw new NoSuchElementException();
+            lastReturned = cursor;
+            return elements[cursor++];
+        }
+
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            ArrayList.this.remove(lastReturned);
+            cursor = lastReturned;               // Tail moved into the freed slot
+            lastReturned = -1;
+        }
+    }
+
     /**
      * Ensure capacity by doubling when full (O(n) only when resize happens).
      * If the requested capacity exceeds the next double, grow to the requested capacity.
@@ -0,0 +1,227 @@
+import java.util.Arrays;
+
+/**
+ * Barnes–Hut quadtree gravity, O(n log n) per tick.
+ *
+ * The tree is rebuilt from scratch in {@link #prepare} and stored in flat
+ * per-node arrays that are reused between ticks, so a steady-state build
+ * allocates nothing. A cell is treated as a single point mass when its
+ * width divided by the distance to its center of mass is below θ;
+ * θ = 0 degenerates to the exact all-pairs sum.
+ */
+public class BarnesHutTree implements ForceSolver {
+
+    /** Depth at which cells stop splitting and keep a chain of bodies instead (coincident points). */
+    private static final int MAX_DEPTH = 48;
+
+    /** Gravitational constant in pixel/tick units. */
+    private final double g;
+
+    /** Plummer softening length squared. */
+    private final double softening2;
+
+    /** Opening angle squared. */
+    private final double theta2;
+
+    /** Prepared positions and masses. */
+    private double[] x, y, mass;
+
+    /** Number of prepared bodies. */
+    private int n;
+
+    /** Cell geometry: center and half width. */
+    private double[] centerX = new double[16], centerY = new double[16], half = new double[16];
+
+    /** Total mass and center of mass of each cell. */
+    private double[] cellMass = new double[16], comX = new double[16], comY = new double[16];
+
+    /** Index of the first of four children, or -1 for a leaf. */
+    private int[] firstChild = new int[16];
+
+    /** Head of the body chain stored in a leaf, or -1. */
+    private int[] firstBody = new int[16];
+
+    /** Next body in the same leaf chain, per body. */
+    private int[] nextBody = new int[16];
+
+    /** Number of cells in use. */
+    private int cells;
+
+    /**
+     * @param g          gravitational constant
+     * @param softening  softening length in pixels
+     * @param theta      opening angle (0.5 is the usual trade-off)
+     */
+    public BarnesHutTree(double g, double softening, double theta) {
+        this.g = g;
+        this.softening2 = softening * softening;
+        this.theta2 = theta * theta;
+    }
+
+    /**
+     * Build the tree over the given bodies and compute every cell's mass and center of mass.
+     */
+    public void prepare(double[] x, double[] y, double[] mass, int n) {
+        this.x = x;
+        this.y = y;
+        this.mass = mass;
+        this.n = n;
+        cells = 0;
+        if (n == 0) return;
+
+        double minX = x[0], maxX = x[0], minY = y[0], maxY = y[0];
+        for (int i = 1; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double h = Math.max(maxX - minX, maxY - minY) / 2 + 1;   // Square root cell with a margin
+        if (nextBody.length < n) nextBody = new int[Math.max(n, nextBody.length * 2)];
+        newCell((minX + maxX) / 2, (minY + maxY) / 2, h);
+
+        for (int i = 0; i < n; i++) {
+            insert(i);
+        }
+
+        // Children always have larger indices than their parent, so a reverse sweep is post-order.
+        for (int c = cells - 1; c >= 0; c--) {
+            double m = 0, mx = 0, my = 0;
+            if (firstChild[c] < 0) {
+                for (int b = firstBody[c]; b >= 0; b = nextBody[b]) {
+                    m += mass[b];
+                    mx += mass[b] * x[b];
+                    my += mass[b] * y[b];
+                }
+            } else {
+                for (int k = firstChild[c]; k < firstChild[c] + 4; k++) {
+                    m += cellMass[k];
+                    mx += cellMass[k] * comX[k];
+                    my += cellMass[k] * comY[k];
+                }
+            }
+            cellMass[c] = m;
+            comX[c] = m > 0 ? mx / m : centerX[c];
+            comY[c] = m > 0 ? my / m : centerY[c];
+        }
+    }
+
+    /**
+     * Walk the tree once per body, opening cells that are too close for the θ criterion.
+     */
+    public void accelerations(int from, int to, double[] ax, double[] ay) {
+        int[] stack = new int[3 * MAX_DEPTH + 4];
+        for (int i = from; i < to; i++) {
+            double xi = x[i], yi = y[i];
+            double sumX = 0, sumY = 0;
+            int top = 0;
+            if (cells > 0) stack[top++] = 0;
+            while (top > 0) {
+                int c = stack[--top];
+                if (cellMass[c] == 0) continue;
+                if (firstChild[c] < 0) {
+                    for (int b = firstBody[c]; b >= 0; b = nextBody[b]) {
+                        if (b == i) continue;
+                        double dx = x[b] - xi;
+                        double dy = y[b] - yi;
+                        double d2 = dx * dx + dy * dy + softening2;
+                        double s = g * mass[b] / (d2 * Math.sqrt(d2));
+                        sumX += s * dx;
+                        sumY += s * dy;
+                    }
+                    continue;
+                }
+                double dx = comX[c] - xi;
+                double dy = comY[c] - yi;
+                double dist2 = dx * dx + dy * dy;
+                double width = 2 * half[c];
+                if (width * width < theta2 * dist2) {
+                    double d2 = dist2 + softening2;
+                    double s = g * cellMass[c] / (d2 * Math.sqrt(d2));
+                    sumX += s * dx;
+                    sumY += s * dy;
+                } else {
+                    int k = firstChild[c];
+                    stack[top++] = k + 3;
+                    stack[top++] = k + 2;
+                    stack[top++] = k + 1;
+                    stack[top++] = k;
+                }
+            }
+            ax[i] = sumX;
+            ay[i] = sumY;
+        }
+    }
+
+    /**
+     * Descend from the root to the leaf for body {@code i}, splitting occupied leaves on the way.
+     */
+    private void insert(int i) {
+        int c = 0;
+        int depth = 0;
+        while (true) {
+            if (firstChild[c] >= 0) {
+                c = childFor(c, x[i], y[i]);
+                depth++;
+            } else if (firstBody[c] < 0 || depth >= MAX_DEPTH) {
+                nextBody[i] = firstBody[c];
+                firstBody[c] = i;
+                return;
+            } else {
+                int resident = firstBody[c];   // Below MAX_DEPTH a leaf holds exactly one body
+                firstBody[c] = -1;
+                subdivide(c);
+                int k = childFor(c, x[resident], y[resident]);
+                nextBody[resident] = -1;
+                firstBody[k] = resident;
+            }
+        }
+    }
+
+    /**
+     * Give cell {@code c} four empty children (NW, NE, SW, SE order by index offset).
+     */
+    private void subdivide(int c) {
+        double q = half[c] / 2;
+        double cx = centerX[c], cy = centerY[c];
+        int first = newCell(cx - q, cy - q, q);
+        newCell(cx + q, cy - q, q);
+        newCell(cx - q, cy + q, q);
+        newCell(cx + q, cy + q, q);
+        firstChild[c] = first;
+    }
+
+    /**
+     * Index of the child of {@code c} containing point (px, py).
+     */
+    private int childFor(int c, double px, double py) {
+        int k = firstChild[c];
+        if (px >= centerX[c]) k += 1;
+        if (py >= centerY[c]) k += 2;
+        return k;
+    }
+
+    /**
+     * Append an empty leaf cell, growing the node arrays by doubling.
+     */
+    private int newCell(double cx, double cy, double h) {
+        if (cells == centerX.length) {
+            int capacity = cells * 2;
+            centerX = Arrays.copyOf(centerX, capacity);
+            centerY = Arrays.copyOf(centerY, capacity);
+            half = Arrays.copyOf(half, capacity);
+            cellMass = Arrays.copyOf(cellMass, capacity);
+            comX = Arrays.copyOf(comX, capacity);
+            comY = Arrays.copyOf(comY, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            firstBody = Arrays.copyOf(firstBody, capacity);
+        }
+        int c = cells++;
+        centerX[c] = cx;
+        centerY[c] = cy;
+        half[c] = h;
+        firstChild[c] = -1;
+        firstBody[c] = -1;
+        return c;
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.Arrays;
+
+/**
+ * Free list of {@link CelestialBody} objects. Culled bodies are released
+ * here and handed back out by the next spawns, so once the population is
+ * steady the tick creates no new bodies.
+ */
+public class BodyPool {
+
+    /** Released bodies waiting for reuse (stack, top at {@code size - 1}). */
+    private CelestialBody[] free = new CelestialBody[16];
+
+    /** Number of bodies in {@link #free}. */
+    private int size;
+
+    /**
+     * Return a recycled body, or a new one if the pool is empty.
+     * Every field must be set by the caller (see {@link CelestialBody#set}).
+     *
+     * @return a body owned by the caller
+     */
+    public CelestialBody acquire() {
+        if (size == 0) {
+            return new CelestialBody(0, 0, 0, 0, 0, null, false);
+        }
+        CelestialBody body = free[--size];
+        free[size] = null;
+        return body;
+    }
+
+    /**
+     * Give a body back. The caller must not touch it afterwards.
+     *
+     * @param body body no longer in any list
+     */
+    public void release(CelestialBody body) {
+        if (size == free.length) {
+            free = Arrays.copyOf(free, size * 2);
+        }
+        free[size++] = body;
+    }
+
+    /**
+     * @return number of bodies ready for reuse
+     */
+    public int size() {
+        return size;
+    }
+}
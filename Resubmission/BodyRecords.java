@@ -0,0 +1,64 @@
+/**
+ * A body list that stores values rather than {@link CelestialBody} objects
+ * ({@link BodyStore}, {@link OffHeapBodyStore}). Bodies handed in are copied
+ * and bodies handed out are copies (edits go back through {@link #set}), so
+ * the engine can return spawned objects to the pool, and the per-tick kernels
+ * below run on the rows in place.
+ */
+public interface BodyRecords extends List<CelestialBody> {
+
+    /**
+     * Overwrite body {@code index} with the values of {@code body}.
+     */
+    void set(int index, CelestialBody body);
+
+    /**
+     * Copy body {@code index} into {@code into} and return it, without allocating.
+     */
+    CelestialBody get(int index, CelestialBody into);
+
+    /** x-coordinate of body {@code index}; read in place, unchecked below {@link #size()}. */
+    double positionX(int index);
+
+    /** y-coordinate of body {@code index}. */
+    double positionY(int index);
+
+    /** Radius of body {@code index}. */
+    int radius(int index);
+
+    /**
+     * Advance every body by its velocity.
+     */
+    void step();
+
+    /**
+     * Advance rows {@code [from, to)} by their velocity; disjoint ranges may run concurrently.
+     */
+    void step(int from, int to);
+
+    /**
+     * Set {@code marks[i]} for rows {@code [from, to)} to whether the body is offscreen;
+     * disjoint ranges may run concurrently.
+     */
+    void markOffscreen(int from, int to, int width, int height, boolean[] marks);
+
+    /**
+     * Swap-remove every row whose mark is set (order is not kept).
+     *
+     * @return number of bodies removed
+     */
+    int removeMarked(boolean[] marks);
+
+    /**
+     * Swap-remove every body that is fully outside {@code [0,width] × [0,height]}.
+     *
+     * @return number of bodies removed
+     */
+    int cullOffscreen(int width, int height);
+
+    /**
+     * Merge row {@code absorbed} into row {@code survivor} with {@link CelestialBody#absorb};
+     * the caller removes row {@code absorbed}.
+     */
+    void merge(int survivor, int absorbed);
+}
@@ -0,0 +1,472 @@
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Structure-of-arrays body container: every field of {@link CelestialBody}
+ * lives in its own primitive column, so the per-tick kernels walk flat
+ * {@code double[]} arrays instead of chasing one pointer per body.
+ *
+ * The {@link List} methods still work on {@link CelestialBody} values, but
+ * those objects are only views: {@link #add(CelestialBody)} copies the fields
+ * in and {@link #get(int)} copies them out.
+ */
+public class BodyStore implements BodyRecords {
+
+    /** Largest column length the JVM reliably allocates. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** Center x-coordinates (pixels). */
+    private double[] positionX;
+
+    /** Center y-coordinates (pixels). */
+    private double[] positionY;
+
+    /** Horizontal velocities (pixels per tick). */
+    private double[] velocityX;
+
+    /** Vertical velocities (pixels per tick). */
+    private double[] velocityY;
+
+    /** Radii (pixels). */
+    private int[] radius;
+
+    /** Masses used by the gravity step. */
+    private double[] mass;
+
+    /** Fill colors as packed ARGB. */
+    private int[] color;
+
+    /** True for the central sun. */
+    private boolean[] isStar;
+
+    /** Stable body identifiers. */
+    private long[] id;
+
+    /** Current number of stored bodies. */
+    private int size;
+
+    /** Views {@link #merge} reads the two bodies into. */
+    private final CelestialBody mergeInto = new CelestialBody(0, 0, 0, 0, 0, null, false),
+            mergeFrom = new CelestialBody(0, 0, 0, 0, 0, null, false);
+
+    /** Loops behind step and the offscreen test (simd key). */
+    private Kernels kernels = new ScalarKernels();
+
+    /** Offscreen flags for {@link #cullOffscreen}, grown on demand. */
+    private boolean[] offscreen = new boolean[0];
+
+    public BodyStore() {
+        // Initial capacity is 10, like ArrayList
+        positionX = new double[10];
+        positionY = new double[10];
+        velocityX = new double[10];
+        velocityY = new double[10];
+        radius = new int[10];
+        mass = new double[10];
+        color = new int[10];
+        isStar = new boolean[10];
+        id = new long[10];
+        size = 0;
+    }
+
+    /**
+     * Return the current number of bodies (O(1)).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append a body by copying its fields into the columns (amortized O(1)).
+     */
+    public boolean add(CelestialBody body) {
+        grow(size + 1);
+        write(size++, body);
+        return true;
+    }
+
+    /**
+     * Append {@code count} bodies with one capacity check, copying each one's fields in (O(count)).
+     */
+    public void addAll(CelestialBody[] bodies, int count) {
+        grow(size + count);
+        for (int i = 0; i < count; i++) {
+            write(size++, bodies[i]);
+        }
+    }
+
+    /**
+     * Insert a body at the given index, shifting every column right (O(n)).
+     */
+    public void add(int index, CelestialBody body) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        grow(size + 1);
+        shift(index, index + 1, size - index);
+        write(index, body);
+        size++;
+    }
+
+    /**
+     * Return a fresh {@link CelestialBody} copied from row {@code index} (O(1)).
+     * Changes to the returned object are not written back.
+     */
+    public CelestialBody get(int index) {
+        return get(index, new CelestialBody(0, 0, 0, 0, 0, null, false));
+    }
+
+    /**
+     * Copy row {@code index} into {@code into} and return it (O(1), no allocation).
+     */
+    public CelestialBody get(int index, CelestialBody into) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        read(index, into);
+        return into;
+    }
+
+    /**
+     * Overwrite row {@code index} with the values of {@code body} (O(1));
+     * the object itself is not kept.
+     */
+    public void set(int index, CelestialBody body) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        write(index, body);
+    }
+
+    /**
+     * Remove row {@code index} preserving order, shifting every column left (O(n)).
+     */
+    public CelestialBody remove(int index) {
+        CelestialBody out = get(index);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        return out;
+    }
+
+    /**
+     * Order-preserving single-pass removal. Each row is loaded into one reused
+     * view for the filter; changes the filter makes to a surviving view are
+     * written back, so mutating filters behave as they do on the object lists.
+     */
+    public int removeIf(Predicate<? super CelestialBody> filter) {
+        CelestialBody view = new CelestialBody(0, 0, 0, 0, 0, null, false);
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            read(read, view);
+            if (!filter.test(view)) {
+                write(write++, view);
+            }
+        }
+        int removed = size - write;
+        size = write;
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator that loads each row into one reused view.
+     * The view is a copy: edits to it are not written back (use {@link #set}),
+     * and it must not be kept past the next call to {@code next()}.
+     */
+    public Iterator<CelestialBody> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Drop every row (capacity is kept).
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Replace the contents with copies of every body in {@code bodies}, in
+     * iteration order, so column kernels can run over an object list.
+     */
+    public void loadFrom(List<CelestialBody> bodies) {
+        size = 0;
+        grow(bodies.size());
+        for (CelestialBody body : bodies) {
+            write(size++, body);
+        }
+    }
+
+    /** x-coordinate of row {@code index} (below {@link #size()}). */
+    public double positionX(int index) {
+        return positionX[index];
+    }
+
+    /** y-coordinate of row {@code index}. */
+    public double positionY(int index) {
+        return positionY[index];
+    }
+
+    /** Radius of row {@code index}. */
+    public int radius(int index) {
+        return radius[index];
+    }
+
+    /** Position x column; valid for rows {@code [0, size())} until the next add. */
+    double[] positionX() {
+        return positionX;
+    }
+
+    /** Position y column. */
+    double[] positionY() {
+        return positionY;
+    }
+
+    /** Velocity x column. */
+    double[] velocityX() {
+        return velocityX;
+    }
+
+    /** Velocity y column. */
+    double[] velocityY() {
+        return velocityY;
+    }
+
+    /** Radius column. */
+    int[] radius() {
+        return radius;
+    }
+
+    /** Packed ARGB color column. */
+    int[] color() {
+        return color;
+    }
+
+    /** Mass column. */
+    double[] mass() {
+        return mass;
+    }
+
+    /** Star flag column. */
+    boolean[] isStar() {
+        return isStar;
+    }
+
+    /** Body id column. */
+    long[] id() {
+        return id;
+    }
+
+    /**
+     * Run step and the offscreen test with {@code kernels} from now on.
+     */
+    public void setKernels(Kernels kernels) {
+        this.kernels = kernels;
+    }
+
+    /**
+     * Make the store exactly {@code rows} rows long, growing the columns if needed.
+     * Rows past the old size hold stale values until the caller fills the columns.
+     */
+    void setSize(int rows) {
+        grow(rows);
+        size = rows;
+    }
+
+    /**
+     * Add one tick of per-row acceleration to the velocity columns.
+     */
+    public void accelerate(double[] accelerationX, double[] accelerationY) {
+        double[] vx = velocityX, vy = velocityY;
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            vx[i] += accelerationX[i];
+        }
+        for (int i = 0; i < n; i++) {
+            vy[i] += accelerationY[i];
+        }
+    }
+
+    /**
+     * Merge row {@code absorbed} into row {@code survivor} with {@link CelestialBody#absorb}.
+     * Row {@code absorbed} is left as it was; the caller removes it.
+     */
+    public void merge(int survivor, int absorbed) {
+        read(survivor, mergeInto);
+        read(absorbed, mergeFrom);
+        mergeInto.absorb(mergeFrom);
+        write(survivor, mergeInto);
+    }
+
+    /**
+     * Advance every body by its velocity, one flat column loop (or vector
+     * kernel) per coordinate.
+     */
+    public void step() {
+        step(0, size);
+    }
+
+    /**
+     * Advance rows {@code [from, to)} by their velocity; disjoint ranges may run concurrently.
+     */
+    public void step(int from, int to) {
+        kernels.step(positionX, positionY, velocityX, velocityY, from, to);
+    }
+
+    /**
+     * Set {@code marks[i]} for rows {@code [from, to)} to whether the body is offscreen.
+     */
+    public void markOffscreen(int from, int to, int width, int height, boolean[] marks) {
+        kernels.markOffscreen(positionX, positionY, radius, from, to, width, height, marks);
+    }
+
+    /**
+     * Swap-remove every row whose mark is set. Marks travel with the rows, so the
+     * result is the same as {@link #cullOffscreen(int, int)} on the same rows.
+     *
+     * @return number of bodies removed
+     */
+    public int removeMarked(boolean[] marks) {
+        int before = size;
+        int i = 0;
+        while (i < size) {
+            if (marks[i]) {
+                move(--size, i);
+                marks[i] = marks[size];
+            } else {
+                i++;
+            }
+        }
+        return before - size;
+    }
+
+    /**
+     * Drop every body that is fully outside {@code [0,width] × [0,height]}.
+     * All rows are tested in one kernel pass, then each culled row is
+     * overwritten by the last row (swap-remove), so this is O(n) with no
+     * shifting but does not preserve order.
+     *
+     * @return number of bodies removed
+     */
+    public int cullOffscreen(int width, int height) {
+        if (offscreen.length < size) {
+            offscreen = new boolean[size * 2];
+        }
+        markOffscreen(0, size, width, height, offscreen);
+        return removeMarked(offscreen);
+    }
+
+    /**
+     * Copy row {@code i} into an existing view object.
+     */
+    private void read(int i, CelestialBody view) {
+        view.positionX = positionX[i];
+        view.positionY = positionY[i];
+        view.velocityX = velocityX[i];
+        view.velocityY = velocityY[i];
+        view.radius = radius[i];
+        view.mass = mass[i];
+        if (view.color == null || view.color.getRGB() != color[i]) {
+            view.color = new Color(color[i], true);
+        }
+        view.isStar = isStar[i];
+        view.id = id[i];
+    }
+
+    /**
+     * Copy a body's fields into row {@code i}.
+     */
+    private void write(int i, CelestialBody body) {
+        positionX[i] = body.positionX;
+        positionY[i] = body.positionY;
+        velocityX[i] = body.velocityX;
+        velocityY[i] = body.velocityY;
+        radius[i] = body.radius;
+        mass[i] = body.mass;
+        color[i] = body.color.getRGB();
+        isStar[i] = body.isStar;
+        id[i] = body.id;
+    }
+
+    /**
+     * Copy row {@code from} over row {@code to}.
+     */
+    private void move(int from, int to) {
+        positionX[to] = positionX[from];
+        positionY[to] = positionY[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        radius[to] = radius[from];
+        mass[to] = mass[from];
+        color[to] = color[from];
+        isStar[to] = isStar[from];
+        id[to] = id[from];
+    }
+
+    /**
+     * Move {@code count} rows starting at {@code from} to {@code to} in every column.
+     */
+    private void shift(int from, int to, int count) {
+        System.arraycopy(positionX, from, positionX, to, count);
+        System.arraycopy(positionY, from, positionY, to, count);
+        System.arraycopy(velocityX, from, velocityX, to, count);
+        System.arraycopy(velocityY, from, velocityY, to, count);
+        System.arraycopy(radius, from, radius, to, count);
+        System.arraycopy(mass, from, mass, to, count);
+        System.arraycopy(color, from, color, to, count);
+        System.arraycopy(isStar, from, isStar, to, count);
+        System.arraycopy(id, from, id, to, count);
+    }
+
+    /**
+     * Ensure every column can hold {@code requiredCapacity} rows, doubling like
+     * ArrayList; the doubling is capped at the largest array size instead of overflowing.
+     */
+    private void grow(int requiredCapacity) {
+        if (requiredCapacity >= 0 && requiredCapacity <= positionX.length) {
+            return;
+        }
+        if (requiredCapacity < 0 || requiredCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("BodyStore cannot hold " + Integer.toUnsignedString(requiredCapacity) + " rows");
+        }
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(positionX.length * 2L, requiredCapacity));
+        positionX = Arrays.copyOf(positionX, newCapacity);
+        positionY = Arrays.copyOf(positionY, newCapacity);
+        velocityX = Arrays.copyOf(velocityX, newCapacity);
+        velocityY = Arrays.copyOf(velocityY, newCapacity);
+        radius = Arrays.copyOf(radius, newCapacity);
+        mass = Arrays.copyOf(mass, newCapacity);
+        color = Arrays.copyOf(color, newCapacity);
+        isStar = Arrays.copyOf(isStar, newCapacity);
+        id = Arrays.copyOf(id, newCapacity);
+    }
+
+    /**
+     * Row cursor handing out one reused view; nothing is written back,
+     * so a read-only walk costs one load per row.
+     */
+    private class Itr implements Iterator<CelestialBody> {
+        /** Row of the next view to hand out. */
+        private int cursor;
+
+        /** Row last handed out, or -1 (none yet, or already removed). */
+        private int lastReturned = -1;
+
+        /** The single view object reused for every row. */
+        private final CelestialBody view = new CelestialBody(0, 0, 0, 0, 0, null, false);
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public CelestialBody next() {
+            if (cursor >= size) throw new NoSuchElementException();
+            lastReturned = cursor++;
+            read(lastReturned, view);
+            return view;
+        }
+
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            BodyStore.this.shift(lastReturned + 1, lastReturned, size - lastReturned - 1);
+            size--;
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+    }
+}
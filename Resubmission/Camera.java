@@ -0,0 +1,50 @@
+/**
+ * Maps world coordinates (where the simulation runs) to panel pixels:
+ * {@code screen = (world - origin) * zoom}. Used on the EDT only.
+ */
+public class Camera {
+
+    /** Smallest and largest zoom the controls allow. */
+    static final double MIN_ZOOM = 1.0 / 1024, MAX_ZOOM = 64;
+
+    /** World coordinate shown at the panel's left/top edge. */
+    public double originX, originY;
+
+    /** Panel pixels per world pixel. */
+    public double zoom = 1;
+
+    /**
+     * Show the whole world, anchored at its top-left corner, at zoom 1 or
+     * smaller. A world the size of the view maps one-to-one onto it.
+     *
+     * @param worldWidth  world width in world pixels
+     * @param worldHeight world height in world pixels
+     * @param viewWidth   view width in panel pixels
+     * @param viewHeight  view height in panel pixels
+     */
+    public void fit(int worldWidth, int worldHeight, int viewWidth, int viewHeight) {
+        originX = 0;
+        originY = 0;
+        zoom = Math.min(1.0, Math.min(viewWidth / (double) worldWidth, viewHeight / (double) worldHeight));
+    }
+
+    /**
+     * Multiply the zoom by {@code factor}, keeping the world point under
+     * panel pixel ({@code screenX}, {@code screenY}) in place.
+     */
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double worldX = originX + screenX / zoom;
+        double worldY = originY + screenY / zoom;
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        originX = worldX - screenX / zoom;
+        originY = worldY - screenY / zoom;
+    }
+
+    /**
+     * Move the view by a drag of ({@code dx}, {@code dy}) panel pixels.
+     */
+    public void pan(double dx, double dy) {
+        originX -= dx / zoom;
+        originY -= dy / zoom;
+    }
+}
@@ -0,0 +1,71 @@
+import javax.swing.JComponent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+
+/**
+ * Mouse controls for a {@link Camera}: wheel zooms around the cursor, drag
+ * pans, double-click fits the whole world again.
+ */
+public class CameraControls extends MouseAdapter {
+
+    /** Zoom factor per wheel notch. */
+    private static final double WHEEL_STEP = 1.25;
+
+    private final Camera camera;
+    private final JComponent panel;
+    private final int worldWidth, worldHeight;
+
+    /** Last drag position. */
+    private int lastX, lastY;
+
+    /**
+     * Attach controls for {@code camera} to {@code panel}.
+     *
+     * @param camera      camera the panel draws with
+     * @param panel       panel receiving the mouse events (repainted on change)
+     * @param worldWidth  world width, for double-click fit
+     * @param worldHeight world height, for double-click fit
+     */
+    public static void install(Camera camera, JComponent panel, int worldWidth, int worldHeight) {
+        CameraControls controls = new CameraControls(camera, panel, worldWidth, worldHeight);
+        panel.addMouseListener(controls);
+        panel.addMouseMotionListener(controls);
+        panel.addMouseWheelListener(controls);
+    }
+
+    private CameraControls(Camera camera, JComponent panel, int worldWidth, int worldHeight) {
+        this.camera = camera;
+        this.panel = panel;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    @Override
+    public void mousePressed(MouseEvent e) {
+        lastX = e.getX();
+        lastY = e.getY();
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        camera.pan(e.getX() - lastX, e.getY() - lastY);
+        lastX = e.getX();
+        lastY = e.getY();
+        panel.repaint();
+    }
+
+    @Override
+    public void mouseWheelMoved(MouseWheelEvent e) {
+        camera.zoomAt(Math.pow(WHEEL_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+        panel.repaint();
+    }
+
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        if (e.getClickCount() == 2) {
+            camera.fit(worldWidth, worldHeight, panel.getWidth(), panel.getHeight());
+            panel.repaint();
+        }
+    }
+}
@@ -22,12 +22,18 @@ public class CelestialBody {
     /** Radius of the body in pixels. */
     public int radius;
 
+    /** Mass used by the gravity step (config units, e.g. body_mass / star_mass). */
+    public double mass;
+
     /** Fill color used when drawing this body. */
     public Color color;
 
     /** True if this body is the central “sun”, false for spawned stars. */
     public boolean isStar;
 
+    /** Stable identifier assigned by the engine at spawn (0 for the initial sun); a merge keeps the survivor's. */
+    public long id;
+
     /**
      * Construct a {@code CelestialBody}.
      *
@@ -46,11 +52,65 @@ public class CelestialBody {
                          int radius,
                          Color color,
                          boolean isStar) {
+        this(positionX, positionY, velocityX, velocityY, radius, 0, color, isStar);
+    }
+
+    /**
+     * Construct a {@code CelestialBody} that takes part in gravity.
+     *
+     * @param positionX  initial x-coordinate (pixels)
+     * @param positionY  initial y-coordinate (pixels)
+     * @param velocityX  initial horizontal velocity (pixels/tick)
+     * @param velocityY  initial vertical velocity (pixels/tick)
+     * @param radius     body radius (pixels)
+     * @param mass       body mass
+     * @param color      fill color for rendering
+     * @param isStar     whether this body represents the central sun
+     */
+    public CelestialBody(double positionX,
+                         double positionY,
+                         double velocityX,
+                         double velocityY,
+                         int radius,
+                         double mass,
+                         Color color,
+                         boolean isStar) {
+        this.positionX = positionX;
+        this.positionY = positionY;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.radius = radius;
+        this.mass = mass;
+        this.color = color;
+        this.isStar = isStar;
+    }
+
+    /**
+     * Overwrite every field, so a pooled body can be reused as a new one.
+     *
+     * @param positionX  x-coordinate (pixels)
+     * @param positionY  y-coordinate (pixels)
+     * @param velocityX  horizontal velocity (pixels/tick)
+     * @param velocityY  vertical velocity (pixels/tick)
+     * @param radius     body radius (pixels)
+     * @param mass       body mass
+     * @param color      fill color for rendering
+     * @param isStar     whether this body represents the central sun
+     */
+    public void set(double positionX,
+                    double positionY,
+                    double velocityX,
+                    double velocityY,
+                    int radius,
+                    double mass,
+                    Color color,
+                    boolean isStar) {
         this.positionX = positionX;
         this.positionY = positionY;
         this.velocityX = velocityX;
         this.velocityY = velocityY;
         this.radius = radius;
+        this.mass = mass;
         this.color = color;
         this.isStar = isStar;
     }
@@ -65,10 +125,44 @@ public class CelestialBody {
     }
 
     /**
-     * Determine whether the body is completely outside the visible viewport.
+     * Apply one tick of acceleration to the velocity.
+     *
+     * @param accelerationX  horizontal acceleration (pixels/tick²)
+     * @param accelerationY  vertical acceleration (pixels/tick²)
+     */
+    public void accelerate(double accelerationX, double accelerationY) {
+        velocityX += accelerationX;
+        velocityY += accelerationY;
+    }
+
+    /**
+     * Merge {@code other} into this body, conserving mass and momentum.
+     * Position moves to the combined center of mass and the radius grows so
+     * the disk area is the sum of both; absorbing the sun makes this the sun.
+     *
+     * @param other body being absorbed (left unchanged; the caller drops it)
+     */
+    public void absorb(CelestialBody other) {
+        double total = mass + other.mass;
+        double weight = total > 0 ? mass / total : 0.5;
+        double otherWeight = 1 - weight;
+        positionX = weight * positionX + otherWeight * other.positionX;
+        positionY = weight * positionY + otherWeight * other.positionY;
+        velocityX = weight * velocityX + otherWeight * other.velocityX;
+        velocityY = weight * velocityY + otherWeight * other.velocityY;
+        radius = (int) Math.round(Math.sqrt((double) radius * radius + (double) other.radius * other.radius));
+        mass = total;
+        if (other.isStar && !isStar) {
+            isStar = true;
+            color = other.color;
+        }
+    }
+
+    /**
+     * Determine whether the body is completely outside the simulated region.
      *
-     * @param width   viewport width in pixels
-     * @param height  viewport height in pixels
+     * @param width   region width in pixels
+     * @param height  region height in pixels
      * @return {@code true} if no part of the body is within the rectangle
      *         {@code [0,width] × [0,height]}, otherwise {@code false}
      */
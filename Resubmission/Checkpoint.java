@@ -0,0 +1,288 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a {@link SimulationEngine}: tick number, RNG state and
+ * every body, written every {@code checkpoint_interval} ticks and read back
+ * at startup when {@code restore} names a file.
+ *
+ * Layout (little-endian): magic "MMCK", int version, long tick, int RNG
+ * stream count, a long state and a long gamma per stream, long next body
+ * id, int body count,
+ * then one column per field: positionX, positionY, velocityX, velocityY,
+ * mass (double), radius, color (int), isStar (byte), id (long). Columns
+ * are copied in bulk through a direct buffer; a save goes to a temporary
+ * file that is then renamed over the target, so a crash mid-write leaves
+ * the previous checkpoint intact.
+ */
+public class Checkpoint implements TickListener {
+
+    /** "MMCK" read as a little-endian int. */
+    private static final int MAGIC = 0x4B434D4D;
+
+    /** Format version written in the header. */
+    private static final int VERSION = 3;
+
+    /** Bytes one body takes over all columns: five doubles, radius, color, isStar and id. */
+    private static final int BODY_BYTES = 5 * Double.BYTES + 2 * Integer.BYTES + 1 + Long.BYTES;
+
+    /** Bytes of the direct buffer columns are streamed through. */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /** File written by the periodic saves. */
+    private final Path path;
+
+    /** Ticks between saves. */
+    private final int interval;
+
+    /** Reused staging buffer for saves. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    /** Columns gathered from object lists before a save. */
+    private final BodyStore scratch = new BodyStore();
+
+    /**
+     * @param path     file the periodic saves write
+     * @param interval ticks between saves (&gt; 0)
+     */
+    public Checkpoint(String path, int interval) {
+        this.path = Paths.get(path);
+        this.interval = interval;
+    }
+
+    /**
+     * Save when the tick count reaches a multiple of the interval.
+     * A failed save is reported and the run continues.
+     * @param engine the engine that just ticked
+     */
+    @Override
+    public void afterTick(SimulationEngine engine) {
+        if (engine.tickCount() % interval != 0) return;
+        try {
+            save(engine);
+        } catch (IOException e) {
+            System.out.println("Checkpoint to '" + path + "' failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the engine's state to this checkpoint's file.
+     *
+     * @param engine engine to save (call from its ticking thread)
+     * @throws IOException if the file cannot be written
+     */
+    public void save(SimulationEngine engine) throws IOException {
+        List<CelestialBody> bodies = engine.bodies();
+        BodyStore store;
+        if (bodies instanceof BodyStore) {
+            store = (BodyStore) bodies;
+        } else {
+            scratch.loadFrom(bodies);
+            store = scratch;
+        }
+        long[] rng = engine.rngState();
+        int n = store.size();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(engine.tickCount());
+            buffer.putInt(rng.length / 2);
+            for (long word : rng) {
+                buffer.putLong(word);
+            }
+            buffer.putLong(engine.nextBodyId());
+            buffer.putInt(n);
+            writeColumn(channel, store.positionX(), n);
+            writeColumn(channel, store.positionY(), n);
+            writeColumn(channel, store.velocityX(), n);
+            writeColumn(channel, store.velocityY(), n);
+            writeColumn(channel, store.mass(), n);
+            writeColumn(channel, store.radius(), n);
+            writeColumn(channel, store.color(), n);
+            writeColumn(channel, store.isStar(), n);
+            writeColumn(channel, store.id(), n);
+            drain(channel);
+            channel.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replace the engine's bodies, tick count and RNG state with a saved checkpoint.
+     * The file is read through a direct buffer the way {@link #save} writes it,
+     * with each column bulk-copied out of the buffer, so files over 2 GB restore too.
+     *
+     * @param engine engine to overwrite (not yet running)
+     * @param file   checkpoint written by {@link #save}
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static void restore(SimulationEngine engine, String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            in.limit(0);
+            try {
+                fill(channel, in, 2 * Integer.BYTES + Long.BYTES + Integer.BYTES);
+                if (in.getInt() != MAGIC) throw new IOException("not a checkpoint file");
+                int version = in.getInt();
+                if (version != VERSION) throw new IOException("unsupported checkpoint version " + version);
+                long tick = in.getLong();
+                int streams = in.getInt();
+                if (streams < 0 || (long) streams * 2 * Long.BYTES > unread(channel, in)) {
+                    throw new IOException("corrupt checkpoint: " + streams + " RNG streams");
+                }
+                long[] rng = new long[streams * 2];
+                readColumn(channel, in, rng, rng.length);
+                fill(channel, in, Long.BYTES + Integer.BYTES);
+                long nextId = in.getLong();
+                int n = in.getInt();
+                long unread = unread(channel, in);
+                if (n < 0 || (long) n * BODY_BYTES > unread) {   // Checked before allocating the columns
+                    throw new IOException("corrupt checkpoint: " + n + " bodies in " + unread + " bytes");
+                }
+
+                BodyStore store = new BodyStore();
+                store.setSize(n);
+                readColumn(channel, in, store.positionX(), n);
+                readColumn(channel, in, store.positionY(), n);
+                readColumn(channel, in, store.velocityX(), n);
+                readColumn(channel, in, store.velocityY(), n);
+                readColumn(channel, in, store.mass(), n);
+                readColumn(channel, in, store.radius(), n);
+                readColumn(channel, in, store.color(), n);
+                readColumn(channel, in, store.isStar(), n);
+                readColumn(channel, in, store.id(), n);
+
+                engine.restoreState(tick, rng, nextId, store);
+            } catch (RuntimeException e) {          // Buffer underflow, negative sizes: corrupt file
+                throw new IOException("corrupt checkpoint: " + e, e);
+            }
+        }
+    }
+
+    private void writeColumn(FileChannel channel, double[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            int k = Math.min(n - off, buffer.remaining() / Double.BYTES);
+            if (k == 0) {
+                drain(channel);
+                continue;
+            }
+            buffer.asDoubleBuffer().put(column, off, k);
+            buffer.position(buffer.position() + k * Double.BYTES);
+            off += k;
+        }
+    }
+
+    private void writeColumn(FileChannel channel, long[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            int k = Math.min(n - off, buffer.remaining() / Long.BYTES);
+            if (k == 0) {
+                drain(channel);
+                continue;
+            }
+            buffer.asLongBuffer().put(column, off, k);
+            buffer.position(buffer.position() + k * Long.BYTES);
+            off += k;
+        }
+    }
+
+    private void writeColumn(FileChannel channel, int[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            int k = Math.min(n - off, buffer.remaining() / Integer.BYTES);
+            if (k == 0) {
+                drain(channel);
+                continue;
+            }
+            buffer.asIntBuffer().put(column, off, k);
+            buffer.position(buffer.position() + k * Integer.BYTES);
+            off += k;
+        }
+    }
+
+    private void writeColumn(FileChannel channel, boolean[] column, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (!buffer.hasRemaining()) drain(channel);
+            buffer.put(column[i] ? (byte) 1 : (byte) 0);
+        }
+    }
+
+    /**
+     * Write out everything staged in {@link #buffer} and empty it.
+     */
+    private void drain(FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Make at least {@code bytes} (&lt;= the buffer capacity) readable in {@code in},
+     * keeping what was not read yet.
+     *
+     * @throws IOException if the file ends first
+     */
+    private static void fill(FileChannel channel, ByteBuffer in, int bytes) throws IOException {
+        if (in.remaining() >= bytes) return;
+        in.compact();
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new IOException("corrupt checkpoint: file ends early");
+            }
+        }
+        in.flip();
+    }
+
+    /**
+     * @return bytes of the file not consumed from {@code in} yet
+     */
+    private static long unread(FileChannel channel, ByteBuffer in) throws IOException {
+        return channel.size() - channel.position() + in.remaining();
+    }
+
+    private static void readColumn(FileChannel channel, ByteBuffer in, double[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            fill(channel, in, Double.BYTES);
+            int k = Math.min(n - off, in.remaining() / Double.BYTES);
+            in.asDoubleBuffer().get(column, off, k);
+            in.position(in.position() + k * Double.BYTES);
+            off += k;
+        }
+    }
+
+    private static void readColumn(FileChannel channel, ByteBuffer in, long[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            fill(channel, in, Long.BYTES);
+            int k = Math.min(n - off, in.remaining() / Long.BYTES);
+            in.asLongBuffer().get(column, off, k);
+            in.position(in.position() + k * Long.BYTES);
+            off += k;
+        }
+    }
+
+    private static void readColumn(FileChannel channel, ByteBuffer in, int[] column, int n) throws IOException {
+        for (int off = 0; off < n; ) {
+            fill(channel, in, Integer.BYTES);
+            int k = Math.min(n - off, in.remaining() / Integer.BYTES);
+            in.asIntBuffer().get(column, off, k);
+            in.position(in.position() + k * Integer.BYTES);
+            off += k;
+        }
+    }
+
+    private static void readColumn(FileChannel channel, ByteBuffer in, boolean[] column, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            fill(channel, in, 1);
+            column[i] = in.get() != 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/**
+ * Merges overlapping bodies once per tick.
+ *
+ * Candidates come from a {@link SpatialHashGrid} with cells as wide as the
+ * largest possible contact distance, so each body only checks its own and
+ * the eight neighbouring cells. Pairs are found from the positions at the
+ * start of the pass and scanned in index order: the lower index survives
+ * and absorbs the other (see {@link CelestialBody#absorb}), and an absorbed
+ * body is skipped for the rest of the pass.
+ *
+ * Both stores are read in place through {@link BodyRecords}, so an off-heap
+ * store costs no heap copy; object lists are first copied into a scratch store.
+ */
+public class Collisions {
+
+    /** Grid rebuilt every tick. */
+    private final SpatialHashGrid grid = new SpatialHashGrid();
+
+    /** Column copy of object lists. */
+    private final BodyStore scratch = new BodyStore();
+
+    /** Per-body "absorbed this tick" flags. */
+    private boolean[] absorbed = new boolean[0];
+
+    /** Merge pairs in the order they were found. */
+    private int[] survivors = new int[0], victims = new int[0];
+
+    /** Object-list bodies gathered for indexed access. */
+    private CelestialBody[] gathered = new CelestialBody[0];
+
+    /**
+     * Merge every overlapping pair of bodies in {@code bodies}.
+     *
+     * @param bodies bodies to update
+     * @return number of bodies absorbed (and removed)
+     */
+    public int apply(List<CelestialBody> bodies) {
+        BodyRecords columns;
+        if (bodies instanceof BodyRecords) {
+            columns = (BodyRecords) bodies;
+        } else {
+            scratch.loadFrom(bodies);
+            columns = scratch;
+        }
+        int n = columns.size();
+        if (n < 2) return 0;
+        if (absorbed.length < n) {
+            absorbed = new boolean[n * 2];
+            survivors = new int[n];
+            victims = new int[n];
+        }
+        Arrays.fill(absorbed, 0, n, false);
+
+        int maxRadius = 1;
+        for (int i = 0; i < n; i++) {
+            maxRadius = Math.max(maxRadius, columns.radius(i));
+        }
+        grid.build(columns, n, 2.0 * maxRadius);
+
+        int pairs = 0;
+        for (int i = 0; i < n; i++) {
+            if (absorbed[i]) continue;
+            double xi = columns.positionX(i), yi = columns.positionY(i);
+            int ri = columns.radius(i);
+            int cx = grid.cell(xi), cy = grid.cell(yi);
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int b = grid.bucket(cx + dx, cy + dy);
+                    for (int k = grid.bucketStart(b); k < grid.bucketEnd(b); k++) {
+                        int j = grid.item(k);
+                        if (j <= i || absorbed[j]) continue;
+                        double ddx = columns.positionX(j) - xi, ddy = columns.positionY(j) - yi;
+                        double reach = ri + columns.radius(j);
+                        if (ddx * ddx + ddy * ddy < reach * reach) {
+                            absorbed[j] = true;
+                            survivors[pairs] = i;
+                            victims[pairs] = j;
+                            pairs++;
+                        }
+                    }
+                }
+            }
+        }
+        if (pairs == 0) return 0;
+
+        if (bodies instanceof BodyRecords) {
+            BodyRecords records = (BodyRecords) bodies;
+            for (int p = 0; p < pairs; p++) {
+                records.merge(survivors[p], victims[p]);
+            }
+            return records.removeMarked(absorbed);
+        }
+
+        if (gathered.length < n) {
+            gathered = new CelestialBody[n * 2];
+        }
+        int k = 0;
+        for (CelestialBody body : bodies) {
+            gathered[k++] = body;
+        }
+        for (int p = 0; p < pairs; p++) {
+            gathered[survivors[p]].absorb(gathered[victims[p]]);
+        }
+        Arrays.fill(gathered, 0, n, null);
+        boolean[] marks = absorbed;
+        int[] index = {0};
+        return bodies.removeIf(body -> marks[index[0]++]);
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the config file with a {@link WatchService} and applies edits to a
+ * running engine at the next tick boundary. A daemon thread only notes when
+ * the file last changed; {@link #afterTick} re-reads it on the ticking thread
+ * once it has been quiet for {@link #SETTLE_NANOS}, reports keys that need a
+ * restart, and hands everything else to {@link SimulationEngine#reconfigure}.
+ * The live keys are parsed as at startup: a key deleted from the file goes
+ * back to its default, and an unparsable value is reported by
+ * {@link SimulationConfig} and falls back to the default too.
+ */
+public class ConfigWatcher implements TickListener {
+
+    /** Keys only read at startup (by the engine, the viewer or the output files). */
+    private static final Set<String> RESTART_KEYS = Set.of(
+            "timer_delay", "renderer", "window_size_x", "window_size_y", "world_size_x", "world_size_y",
+            "seed", "star_position_x", "star_position_y", "star_size", "star_mass",
+            "star_velocity_x", "star_velocity_y", "restore",
+            "metrics_interval", "metrics_csv", "metrics_jmx", "checkpoint_interval", "checkpoint_path",
+            "trajectory_path", "trajectory_quantum", "trajectory_keyframe", "trajectory_buffer",
+            "watch_config");
+
+    /** Quiet time after the last event before the file is read, so a save in several writes is read once. */
+    private static final long SETTLE_NANOS = 200_000_000L;
+
+    /** {@link #lastChange} value meaning no unread change. */
+    private static final long NONE = Long.MIN_VALUE;
+
+    /** Watched config file. */
+    private final Path file;
+
+    /** Events for the file's directory (a file cannot be watched on its own). */
+    private final WatchService watcher;
+
+    /** System.nanoTime() of the latest event for the file, or {@link #NONE}. */
+    private final AtomicLong lastChange = new AtomicLong(NONE);
+
+    /** The file as of the last reload, to tell which keys an edit changed. */
+    private Properties current;
+
+    /**
+     * Start watching {@code path}.
+     *
+     * @param path config file the engine was built from
+     * @throws IOException if the file cannot be read or its directory cannot be watched
+     */
+    public ConfigWatcher(String path) throws IOException {
+        file = Paths.get(path).toAbsolutePath();
+        current = SimulationConfig.read(path);
+        watcher = file.getFileSystem().newWatchService();
+        file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Watcher thread: note the time of every event that touches the file
+     * (editors that save by renaming show up as ENTRY_CREATE).
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context())) {
+                        lastChange.set(System.nanoTime());
+                    }
+                }
+                if (!key.reset()) {
+                    System.out.println("Stopped watching '" + file + "': its directory is gone.");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    /**
+     * Reload the file if it changed and has settled, and apply it to {@code engine}.
+     */
+    public void afterTick(SimulationEngine engine) {
+        long changed = lastChange.get();
+        if (changed == NONE || System.nanoTime() - changed < SETTLE_NANOS) return;
+        if (!lastChange.compareAndSet(changed, NONE)) return;
+
+        Properties edited;
+        try {
+            edited = SimulationConfig.read(file.toString());
+        } catch (IOException e) {
+            System.out.println("Could not reload '" + file + "' (" + e.getMessage() + "). Keeping the running config.");
+            return;
+        }
+
+        /** Compare every key in either version, so deleted lines count as edits too. */
+        Set<String> keys = new TreeSet<>(edited.stringPropertyNames());
+        keys.addAll(current.stringPropertyNames());
+        Properties live = new Properties();
+        StringBuilder applied = new StringBuilder();
+        for (String key : keys) {
+            String value = trimmed(edited, key);
+            boolean edit = !Objects.equals(value, trimmed(current, key));
+            if (RESTART_KEYS.contains(key)) {
+                if (edit) {
+                    System.out.println(key + (value == null ? " removed" : " changed") + "; restart to apply it.");
+                }
+                continue;
+            }
+            if (value != null) {
+                live.setProperty(key, value);
+            }
+            if (edit) {
+                applied.append(applied.length() == 0 ? "" : ", ").append(key)
+                        .append(value == null ? " removed (default)" : " = " + value);
+            }
+        }
+        current = edited;
+
+        if (applied.length() > 0) {
+            SimulationConfig next = SimulationConfig.from(live);     // The engine keeps its startup-only settings
+            System.out.println("Reloaded " + file.getFileName() + " at tick " + engine.tickCount() + ": " + applied);
+            engine.reconfigure(next);
+        }
+    }
+
+    /**
+     * @return the trimmed value of {@code key}, or null if the file does not have it
+     */
+    private static String trimmed(Properties p, String key) {
+        String value = p.getProperty(key);
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Stop watching; the watcher thread exits.
+     */
+    public void close() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            System.out.println("Could not close the watch on '" + file + "': " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Brute-force all-pairs gravity, O(n²) per tick.
+ * Kept as the reference that {@link BarnesHutTree} is checked against.
+ */
+public class DirectForceSolver implements ForceSolver {
+
+    /** Gravitational constant in pixel/tick units. */
+    private final double g;
+
+    /** Plummer softening length squared, keeps close encounters finite. */
+    private final double softening2;
+
+    /** Prepared positions and masses. */
+    private double[] x, y, mass;
+
+    /** Number of prepared bodies. */
+    private int n;
+
+    /** Runs the all-pairs sum (scalar or vector). */
+    private final Kernels kernels;
+
+    /**
+     * @param g          gravitational constant
+     * @param softening  softening length in pixels
+     */
+    public DirectForceSolver(double g, double softening) {
+        this(g, softening, new ScalarKernels());
+    }
+
+    /**
+     * @param g          gravitational constant
+     * @param softening  softening length in pixels
+     * @param kernels    loops that compute the sum
+     */
+    public DirectForceSolver(double g, double softening, Kernels kernels) {
+        this.g = g;
+        this.softening2 = softening * softening;
+        this.kernels = kernels;
+    }
+
+    public void prepare(double[] x, double[] y, double[] mass, int n) {
+        this.x = x;
+        this.y = y;
+        this.mass = mass;
+        this.n = n;
+    }
+
+    public void accelerations(int from, int to, double[] ax, double[] ay) {
+        kernels.accelerations(x, y, mass, n, g, softening2, from, to, ax, ay);
+    }
+}
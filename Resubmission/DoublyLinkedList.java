@@ -1,5 +1,11 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
 /**
  * A doubly linked list with head and tail pointers.
+ * Remembers the last node reached by index (the "finger") so sequential
+ * index access walks one step from it instead of from an end.
  *
  * @param <T> element type
  */
@@ -27,6 +33,12 @@ public class DoublyLinkedList<T> implements List<T> {
     /** Current number of elements in the list. */
     private int size;
 
+    /** Node last reached by {@link #nodeAt(int)}, or {@code null} when unknown. */
+    private Node<T> finger;
+
+    /** Index of {@link #finger}. */
+    private int fingerIndex;
+
     /**
      * Create an empty doubly linked list.
      */
@@ -95,6 +107,8 @@ public class DoublyLinkedList<T> implements List<T> {
         current.prev = node;
 
         size++;
+        finger = node;          // current moved to index + 1; the new node now sits at index
+        fingerIndex = index;
     }
 
     /**
@@ -122,39 +136,128 @@ public class DoublyLinkedList<T> implements List<T> {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
         Node<T> current = nodeAt(index);
+        unlink(current);
+        if (current.next != null) {         // Keep the finger on the node that slid into index
+            finger = current.next;
+            fingerIndex = index;
+        } else if (current.prev != null) {
+            finger = current.prev;
+            fingerIndex = index - 1;
+        }
+        return current.value;
+    }
 
-        if (current.prev != null) {
-            current.prev.next = current.next;
+    /**
+     * Unlink every element matching {@code filter} in one walk from the head.
+     * Runs in O(n) time regardless of how many elements are removed.
+     *
+     * @param filter returns true for elements to remove
+     * @return number of elements removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int before = size;
+        Node<T> current = head;
+        while (current != null) {
+            Node<T> next = current.next;
+            if (filter.test(current.value)) unlink(current);
+            current = next;
+        }
+        return before - size;
+    }
+
+    /**
+     * Return a forward iterator over the elements.
+     * Each step and each remove() runs in O(1) time.
+     *
+     * @return iterator starting at the head
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Detach {@code node} from its neighbours and fix head/tail.
+     * Runs in O(1) time.
+     *
+     * @param node node currently in this list
+     */
+    private void unlink(Node<T> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
         } else {
-            head = current.next;
+            head = node.next;
         }
 
-        if (current.next != null) {
-            current.next.prev = current.prev;
+        if (node.next != null) {
+            node.next.prev = node.prev;
         } else {
-            tail = current.prev;
+            tail = node.prev;
         }
 
         size--;
-        return current.value;
+        finger = null;          // Callers that know the index re-seat it
+    }
+
+    /**
+     * Cursor over the nodes; remove() unlinks the last returned node directly.
+     */
+    private class Itr implements Iterator<T> {
+        /** Node to be returned by the next call to next(). */
+        private Node<T> next = head;
+
+        /** Node returned by the last next(), or {@code null} after remove(). */
+        private Node<T> lastReturned;
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public T next() {
+            if (next == null) throw new NoSuchElementException();
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.value;
+        }
+
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            unlink(lastReturned);
+            lastReturned = null;
+        }
     }
 
     /**
-     * Return the node at index {@code i}, walking from the nearer end.
-     * Runs in O(min(i, n-i)) time.
+     * Return the node at index {@code i}, walking from whichever of head, tail
+     * or the finger is closest, and move the finger there.
+     * Runs in O(min(i, n-i, |i - finger|)) time, so O(1) for neighbouring indexes.
      *
      * @param i target index
      * @return node at {@code i}
      */
     private Node<T> nodeAt(int i) {
-        if (i < size / 2) {
-            Node<T> current = head;
-            for (int k = 0; k < i; k++) current = current.next;
-            return current;
+        Node<T> current;
+        int at;
+        int fromFinger = finger == null ? Integer.MAX_VALUE : Math.abs(i - fingerIndex);
+        if (fromFinger <= i && fromFinger <= size - 1 - i) {
+            current = finger;
+            at = fingerIndex;
+        } else if (i < size / 2) {
+            current = head;
+            at = 0;
         } else {
-            Node<T> current = tail;
-            for (int k = size - 1; k > i; k--) current = current.prev;
-            return current;
+            current = tail;
+            at = size - 1;
+        }
+        while (at < i) {
+            current = current.next;
+            at++;
+        }
+        while (at > i) {
+            current = current.prev;
+            at--;
         }
+        finger = current;
+        fingerIndex = i;
+        return current;
     }
 }
@@ -1,3 +1,7 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
 /**
  * Singly linked list that uses a dummy head (sentinel) node.
  * The sentinel simplifies insert/remove at index 0.
@@ -51,6 +55,25 @@ public class DummyHeadLinkedList<T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append {@code count} elements, walking to the tail once.
+     * Runs in O(n + count) time.
+     *
+     * @param elements values to append, in order
+     * @param count    number of values to take from the front of {@code elements}
+     */
+    public void addAll(T[] elements, int count) {
+        Node<T> tail = head;
+        while (tail.next != null) {
+            tail = tail.next;
+        }
+        for (int i = 0; i < count; i++) {
+            tail.next = new Node<>(elements[i]);
+            tail = tail.next;
+        }
+        size += count;
+    }
+
     /**
      * Insert an element at a specific index, shifting the element
      * currently at that position (and any subsequent elements) to the right.
@@ -114,4 +137,78 @@ public class DummyHeadLinkedList<T> implements List<T> {
         size--;
         return target.value;
     }
+
+    /**
+     * Unlink every element matching {filter} in one walk from the sentinel.
+     * Runs in O(n) time regardless of how many elements are removed.
+     *
+     * @param filter returns true for elements to remove
+     * @return number of elements removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        Node<T> previous = head;
+        Node<T> current = head.next;
+        while (current != null) {
+            if (filter.test(current.value)) {
+                previous.next = current.next;
+                removed++;
+            } else {
+                previous = current;
+            }
+            current = current.next;
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator over the elements.
+     * Each step and each remove() runs in O(1) time.
+     *
+     * @return iterator starting after the sentinel
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Cursor that trails one node behind the last returned one; the sentinel
+     * means there is always a predecessor to unlink from.
+     */
+    private class Itr implements Iterator<T> {
+        /** Node to be returned by the next call to next(). */
+        private Node<T> next = head.next;
+
+        /** Node returned by the last next(), or null after remove(). */
+        private Node<T> lastReturned;
+
+        /** Last surviving node before {next} (the sentinel at the start). */
+        private Node<T> previous = head;
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            if (lastReturned != null) {
+                previous = lastReturned;
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.value;
+        }
+
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            previous.next = next;
+            lastReturned = null;
+            size--;
+        }
+    }
 }
@@ -0,0 +1,18 @@
+/**
+ * Explicit Euler: move with the old velocity, then kick.
+ * First order and gains energy on orbits; kept as the textbook baseline.
+ * One force evaluation per step.
+ */
+public class EulerIntegrator implements Integrator {
+
+    public boolean step(double[] x, double[] y, double[] vx, double[] vy, int n, double dt,
+                        double[] ax, double[] ay, Field field) {
+        for (int i = 0; i < n; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            vx[i] += ax[i] * dt;
+            vy[i] += ay[i] * dt;
+        }
+        return false;
+    }
+}
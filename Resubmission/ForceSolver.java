@@ -0,0 +1,21 @@
+/**
+ * Computes gravitational accelerations for a set of point masses.
+ * {@link #prepare} is called once per tick with the current positions, then
+ * {@link #accelerations} may be called for any sub-range of bodies.
+ */
+public interface ForceSolver {
+
+    /**
+     * Capture the positions and masses of {@code n} bodies for this tick.
+     * The arrays are read, never written, and must not change until the
+     * tick's {@code accelerations} calls are done.
+     */
+    void prepare(double[] x, double[] y, double[] mass, int n);
+
+    /**
+     * Write the acceleration on bodies {@code [from, to)} into {@code ax}/{@code ay}.
+     * Each body's result depends only on the prepared state, so disjoint
+     * ranges may be computed independently.
+     */
+    void accelerations(int from, int to, double[] ax, double[] ay);
+}
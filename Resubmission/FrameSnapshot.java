@@ -0,0 +1,81 @@
+import java.util.Arrays;
+
+/**
+ * What the viewer needs to draw one frame: position, radius and color of
+ * every body, copied out of the live list so painting never touches it.
+ */
+public class FrameSnapshot {
+
+    /** Tick the snapshot was taken after. */
+    public long tick;
+
+    /** Number of bodies captured. */
+    public int count;
+
+    /** Center coordinates (pixels). */
+    public double[] positionX = new double[16], positionY = new double[16];
+
+    /** Radii (pixels). */
+    public int[] radius = new int[16];
+
+    /** Packed ARGB colors. */
+    public int[] color = new int[16];
+
+    /**
+     * Overwrite this snapshot with the current state of {@code bodies}.
+     *
+     * @param bodies live bodies (read on the simulation thread)
+     * @param tick   tick number to record
+     */
+    public void capture(List<CelestialBody> bodies, long tick) {
+        int n = bodies.size();
+        ensureCapacity(n);
+        if (bodies instanceof BodyStore) {
+            BodyStore store = (BodyStore) bodies;
+            System.arraycopy(store.positionX(), 0, positionX, 0, n);
+            System.arraycopy(store.positionY(), 0, positionY, 0, n);
+            System.arraycopy(store.radius(), 0, radius, 0, n);
+            System.arraycopy(store.color(), 0, color, 0, n);
+        } else {
+            int i = 0;
+            for (CelestialBody body : bodies) {
+                positionX[i] = body.positionX;
+                positionY[i] = body.positionY;
+                radius[i] = body.radius;
+                color[i] = body.color.getRGB();
+                i++;
+            }
+        }
+        this.count = n;
+        this.tick = tick;
+    }
+
+    /**
+     * Overwrite this snapshot with a frame read back from a trajectory file.
+     *
+     * @param frame decoded trajectory frame
+     */
+    public void capture(TrajectoryFrame frame) {
+        int n = frame.count;
+        ensureCapacity(n);
+        System.arraycopy(frame.positionX, 0, positionX, 0, n);
+        System.arraycopy(frame.positionY, 0, positionY, 0, n);
+        System.arraycopy(frame.radius, 0, radius, 0, n);
+        System.arraycopy(frame.color, 0, color, 0, n);
+        this.count = n;
+        this.tick = frame.tick;
+    }
+
+    /**
+     * Grow every column to at least {@code n} rows.
+     */
+    private void ensureCapacity(int n) {
+        if (positionX.length < n) {
+            int capacity = Math.max(n, positionX.length * 2);
+            positionX = Arrays.copyOf(positionX, capacity);
+            positionY = Arrays.copyOf(positionY, capacity);
+            radius = Arrays.copyOf(radius, capacity);
+            color = Arrays.copyOf(color, capacity);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Moves a body list one tick under mutual gravity.
+ *
+ * Solvers work on flat position/mass columns. A {@link BodyStore} is used
+ * in place. An {@link OffHeapBodyStore} copies just its positions, velocities
+ * and masses into a scratch store (40 bytes a body on the heap) and takes the
+ * new positions and velocities back; any other list is copied whole and
+ * written back in iteration order.
+ * The tick is split into one or more substeps, each advanced by the
+ * configured {@link Integrator}; with adaptive substeps the count is picked
+ * every tick from the largest acceleration.
+ */
+public class Gravity {
+
+    /** Solver that turns positions and masses into accelerations. */
+    private final ForceSolver solver;
+
+    /** Column copy of object lists, or of off-heap motion (unused for soa). */
+    private final BodyStore scratch = new BodyStore();
+
+    /** Worker pool for the per-body force walks, or null for single-threaded. */
+    private ParallelTick parallel;
+
+    /** Per-body acceleration output, grown on demand. */
+    private double[] accelerationX = new double[0], accelerationY = new double[0];
+
+    /** Scheme that advances each substep (integrator key). */
+    private Integrator integrator = new SemiImplicitEulerIntegrator();
+
+    /** Substeps per tick, and the minimum when adaptive. */
+    private int substeps = 1;
+
+    /** Whether the substep count adapts to the accelerations. */
+    private boolean adaptive;
+
+    /** Adaptive accuracy parameter: a substep is at most eta * sqrt(length / |a|). */
+    private double eta;
+
+    /** Length scale of the adaptive criterion (the softening length). */
+    private double length;
+
+    /** Upper bound on adaptive substeps per tick. */
+    private int maxSubsteps;
+
+    /** Substeps used by the last tick. */
+    private int lastSubsteps;
+
+    /** Masses and count of the bodies being advanced, for {@link #field}. */
+    private double[] mass;
+    private int count;
+
+    /** Acceleration callback handed to the integrator (created once). */
+    private final Integrator.Field field = this::evaluate;
+
+    /**
+     * @param solver force solver to use every tick
+     */
+    public Gravity(ForceSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Run the per-body force walks on {@code parallel} (null for the calling thread).
+     * The tree build stays sequential; each body's sum is computed in the same
+     * order either way, so results do not depend on the thread count.
+     */
+    public void setParallel(ParallelTick parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Use {@code integrator} with a fixed number of substeps per tick.
+     *
+     * @param integrator scheme for each substep
+     * @param substeps   substeps per tick (at least 1)
+     */
+    public void setIntegrator(Integrator integrator, int substeps) {
+        this.integrator = integrator;
+        this.substeps = Math.max(1, substeps);
+    }
+
+    /**
+     * Pick the substep count every tick so that each substep is at most
+     * {@code eta * sqrt(length / a)} ticks for the largest acceleration {@code a}.
+     *
+     * @param eta         accuracy parameter (smaller = more substeps)
+     * @param length      length scale, normally the softening length
+     * @param maxSubsteps upper bound per tick
+     */
+    public void setAdaptive(double eta, double length, int maxSubsteps) {
+        this.adaptive = true;
+        this.eta = eta;
+        this.length = length;
+        this.maxSubsteps = Math.max(1, maxSubsteps);
+    }
+
+    /**
+     * Build the solver named by the {@code gravity} config key.
+     *
+     * @param mode       "barneshut", "direct" or "off"
+     * @param g          gravitational constant
+     * @param softening  softening length in pixels
+     * @param theta      Barnes–Hut opening angle
+     * @param kernels    loops for the direct all-pairs sum
+     * @return a configured {@code Gravity}, or {@code null} when gravity is off
+     */
+    public static Gravity create(String mode, double g, double softening, double theta, Kernels kernels) {
+        switch (mode) {
+            case "barneshut":
+                return new Gravity(new BarnesHutTree(g, softening, theta));
+            case "direct":
+                return new Gravity(new DirectForceSolver(g, softening, kernels));
+            case "off":
+                return null;
+            default:
+                System.out.println("Unknown gravity '" + mode + "'. Defaulting to off.");
+                return null;
+        }
+    }
+
+    /**
+     * Move every body one tick: integrate positions and velocities under the
+     * acceleration from all the others.
+     *
+     * @param bodies bodies to update
+     */
+    public void advance(List<CelestialBody> bodies) {
+        BodyStore columns;
+        if (bodies instanceof BodyStore) {
+            columns = (BodyStore) bodies;
+        } else if (bodies instanceof OffHeapBodyStore) {
+            ((OffHeapBodyStore) bodies).copyMotionTo(scratch);
+            columns = scratch;
+        } else {
+            scratch.loadFrom(bodies);
+            columns = scratch;
+        }
+        int n = columns.size();
+        if (accelerationX.length < n) {
+            accelerationX = new double[n * 2];
+            accelerationY = new double[n * 2];
+        }
+        mass = columns.mass();
+        count = n;
+        double[] x = columns.positionX(), y = columns.positionY();
+        double[] vx = columns.velocityX(), vy = columns.velocityY();
+        double[] ax = accelerationX, ay = accelerationY;
+
+        evaluate(x, y, ax, ay);
+        int k = adaptive ? Math.max(substeps, adaptiveSubsteps(ax, ay, n)) : substeps;
+        double dt = 1.0 / k;
+        boolean current = true;
+        for (int s = 0; s < k; s++) {
+            if (!current) evaluate(x, y, ax, ay);
+            current = integrator.step(x, y, vx, vy, n, dt, ax, ay, field);
+        }
+        lastSubsteps = k;
+
+        if (bodies instanceof OffHeapBodyStore) {
+            ((OffHeapBodyStore) bodies).copyMotionFrom(columns);
+        } else if (columns != bodies) {
+            int i = 0;
+            for (CelestialBody body : bodies) {
+                body.positionX = x[i];
+                body.positionY = y[i];
+                body.velocityX = vx[i];
+                body.velocityY = vy[i];
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @return substeps the last {@link #advance} used
+     */
+    public int lastSubsteps() {
+        return lastSubsteps;
+    }
+
+    /**
+     * Accelerations of the current bodies placed at {@code x}/{@code y}.
+     */
+    private void evaluate(double[] x, double[] y, double[] ax, double[] ay) {
+        int n = count;
+        solver.prepare(x, y, mass, n);
+        if (parallel == null) {
+            solver.accelerations(0, n, ax, ay);
+        } else {
+            parallel.forRange(n, (from, to) -> solver.accelerations(from, to, ax, ay));
+        }
+    }
+
+    /**
+     * Substeps needed so that one substep is at most {@code eta * sqrt(length / |a|)}
+     * for the largest acceleration, clamped to {@code [1, maxSubsteps]}.
+     */
+    private int adaptiveSubsteps(double[] ax, double[] ay, int n) {
+        double max2 = 0;
+        for (int i = 0; i < n; i++) {
+            max2 = Math.max(max2, ax[i] * ax[i] + ay[i] * ay[i]);
+        }
+        if (max2 == 0) return 1;
+        double dt = eta * Math.sqrt(length / Math.sqrt(max2));
+        return (int) Math.max(1, Math.min(maxSubsteps, Math.ceil(1 / dt)));
+    }
+}
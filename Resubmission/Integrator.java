@@ -0,0 +1,57 @@
+/**
+ * Advances positions and velocities over a timestep under an acceleration
+ * field, on flat columns. Selected by the {@code integrator} config key and
+ * used by {@link Gravity}; without gravity every scheme reduces to moving
+ * each body by its velocity, which the engine does directly.
+ */
+public interface Integrator {
+
+    /**
+     * Accelerations of all bodies for a given set of positions.
+     */
+    interface Field {
+        /**
+         * Write the acceleration of every body, with bodies placed at
+         * {@code x}/{@code y}, into {@code ax}/{@code ay}.
+         */
+        void evaluate(double[] x, double[] y, double[] ax, double[] ay);
+    }
+
+    /**
+     * Advance bodies {@code [0, n)} by {@code dt} ticks.
+     *
+     * @param x,y    positions, updated in place
+     * @param vx,vy  velocities, updated in place
+     * @param n      number of bodies
+     * @param dt     timestep in ticks
+     * @param ax,ay  accelerations at the current positions on entry; may be overwritten
+     * @param field  evaluates accelerations at other positions
+     * @return true if {@code ax}/{@code ay} hold the accelerations at the new
+     *         positions on return, so the caller can skip the next evaluation
+     */
+    boolean step(double[] x, double[] y, double[] vx, double[] vy, int n, double dt,
+                 double[] ax, double[] ay, Field field);
+
+    /**
+     * Build the integrator named by the {@code integrator} config key.
+     *
+     * @param name "euler", "semi_implicit", "verlet" (or "leapfrog") or "rk4"
+     * @return a new integrator (semi_implicit for unknown names)
+     */
+    static Integrator create(String name) {
+        switch (name) {
+            case "euler":
+                return new EulerIntegrator();
+            case "semi_implicit":
+                return new SemiImplicitEulerIntegrator();
+            case "verlet":
+            case "leapfrog":
+                return new VerletIntegrator();
+            case "rk4":
+                return new RungeKutta4Integrator();
+            default:
+                System.out.println("Unknown integrator '" + name + "'. Defaulting to semi_implicit.");
+                return new SemiImplicitEulerIntegrator();
+        }
+    }
+}
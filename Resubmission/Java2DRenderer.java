@@ -0,0 +1,34 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * The original renderer: setColor + fillOval per body, with the same
+ * bounding box as {@link CelestialBody#draw} at zoom 1.
+ */
+public class Java2DRenderer implements Renderer {
+
+    public void render(Graphics2D g, FrameSnapshot frame, Camera camera, int width, int height) {
+        double zoom = camera.zoom, originX = camera.originX, originY = camera.originY;
+        Color color = null;
+        for (int i = 0; i < frame.count; i++) {
+            double x = (frame.positionX[i] - originX) * zoom;
+            double y = (frame.positionY[i] - originY) * zoom;
+            double r = frame.radius[i] * zoom;
+            if (x + r < 0 || x - r > width || y + r < 0 || y - r > height) continue;   // Outside the panel
+
+            if (color == null || color.getRGB() != frame.color[i]) {
+                color = new Color(frame.color[i], true);
+                g.setColor(color);
+            }
+            if (r < 1) {
+                g.fillRect((int) Math.floor(x), (int) Math.floor(y), 1, 1);     // Sub-pixel: one pixel
+                continue;
+            }
+            int radius = (int) Math.round(r);
+            int diameter = radius * 2;
+            int drawX = (int) Math.round(x - radius);
+            int drawY = (int) Math.round(y - radius);
+            g.fillOval(drawX, drawY, diameter, diameter);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The hot per-body loops over flat columns: the position update, the
+ * offscreen test and the all-pairs force sum. {@link ScalarKernels} is plain
+ * Java; {@link #create} swaps in SIMD versions built on the incubating
+ * Vector API when they were compiled and the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+public interface Kernels {
+
+    /**
+     * Add the velocity to the position of rows {@code [from, to)}.
+     */
+    void step(double[] x, double[] y, double[] vx, double[] vy, int from, int to);
+
+    /**
+     * Set {@code marks[i]} for rows {@code [from, to)} to whether the body lies fully
+     * outside {@code [0,width] × [0,height]}, as {@link CelestialBody#isOffscreen} does.
+     */
+    void markOffscreen(double[] x, double[] y, int[] radius, int from, int to,
+                       int width, int height, boolean[] marks);
+
+    /**
+     * Write into {@code ax}/{@code ay} the softened gravitational acceleration on
+     * bodies {@code [from, to)} from every other body in {@code [0, n)}.
+     *
+     * @param g          gravitational constant
+     * @param softening2 squared softening length
+     */
+    void accelerations(double[] x, double[] y, double[] mass, int n, double g, double softening2,
+                       int from, int to, double[] ax, double[] ay);
+
+    /**
+     * @return "scalar" or "vector"
+     */
+    String name();
+
+    /**
+     * Pick the kernels named by the {@code simd} config key. The vector kernels
+     * are looked up by name, so this class compiles and runs without the
+     * incubator module.
+     *
+     * @param name "auto" (vector when available), "vector" or "scalar"
+     * @return the chosen kernels (scalar when the vector ones cannot be loaded)
+     */
+    static Kernels create(String name) {
+        switch (name) {
+            case "scalar":
+                return new ScalarKernels();
+            case "auto":
+            case "vector":
+                String pkg = Kernels.class.getPackageName();
+                try {
+                    Class<?> type = Class.forName(pkg.isEmpty() ? "VectorKernels" : pkg + ".VectorKernels");
+                    return (Kernels) type.getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    if (name.equals("vector")) {
+                        System.out.println("Vector kernels unavailable (" + e + "). Defaulting to scalar.");
+                    }
+                    return new ScalarKernels();
+                }
+            default:
+                System.out.println("Unknown simd '" + name + "'. Defaulting to scalar.");
+                return new ScalarKernels();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of non-negative longs (nanoseconds here),
+ * in the style of HdrHistogram: every power of two is split into 16 linear
+ * sub-buckets, so any recorded value is reported within about 6% and
+ * recording is a few shifts plus one array increment, with no allocation.
+ *
+ * Methods are synchronized so one thread can record while another reads;
+ * uncontended, that costs a few nanoseconds per call.
+ */
+public class LatencyHistogram {
+
+    /** Values below this are counted exactly, one bucket each. */
+    private static final int EXACT = 32;
+
+    /** Linear sub-buckets per power of two above {@link #EXACT}. */
+    private static final int SUB_BUCKETS = 16;
+
+    /** Enough buckets for any positive long. */
+    private final long[] counts = new long[SUB_BUCKETS * 61];
+
+    /** Number of recorded values. */
+    private long total;
+
+    /** Largest recorded value. */
+    private long max;
+
+    /** Sum of recorded values, for the mean. */
+    private long sum;
+
+    /**
+     * Count one value; negative values are clamped to 0.
+     *
+     * @param value value to record
+     */
+    public synchronized void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucket(value)]++;
+        total++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * @param percentile in [0, 100]
+     * @return lower bound of the bucket holding that percentile, or 0 if empty
+     */
+    public synchronized long percentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if (seen >= rank) return Math.min(lowerBound(b), max);
+        }
+        return max;
+    }
+
+    /**
+     * @return largest recorded value (exact)
+     */
+    public synchronized long max() {
+        return max;
+    }
+
+    /**
+     * @return mean of the recorded values (exact), or 0 if empty
+     */
+    public synchronized double mean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public synchronized long count() {
+        return total;
+    }
+
+    /**
+     * Forget every recorded value.
+     */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    /**
+     * Bucket of {@code v}: exact below 32, then the top 5 significant bits per power of two.
+     */
+    private static int bucket(long v) {
+        if (v < EXACT) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 4;
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    /**
+     * Smallest value that maps to bucket {@code b}.
+     */
+    private static long lowerBound(int b) {
+        if (b < EXACT) return b;
+        int shift = b / SUB_BUCKETS - 1;
+        long top = b % SUB_BUCKETS + SUB_BUCKETS;
+        return top << shift;
+    }
+}
@@ -1,3 +1,7 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
 /**
  * Singly linked list backed by a head pointer.
  *
@@ -63,6 +67,31 @@ public class LinkedList<T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append {@code count} elements, walking to the tail once.
+     * Runs in O(n + count) time.
+     *
+     * @param elements values to append, in order
+     * @param count    number of values to take from the front of {@code elements}
+     */
+    public void addAll(T[] elements, int count) {
+        if (count == 0) return;
+        Node<T> tail = head;
+        int i = 0;
+        if (tail == null) {
+            head = tail = new Node<>(elements[i++]);
+        } else {
+            while (tail.next != null) {
+                tail = tail.next;
+            }
+        }
+        for (; i < count; i++) {
+            tail.next = new Node<>(elements[i]);
+            tail = tail.next;
+        }
+        size += count;
+    }
+
     /**
      * Insert an element at a specific index. Elements at and after the index
      * are shifted one position to the right.
@@ -130,6 +159,90 @@ public class LinkedList<T> implements List<T> {
         return out;
     }
 
+    /**
+     * Unlink every element matching {filter} in one walk from the head.
+     * Runs in O(n) time regardless of how many elements are removed.
+     *
+     * @param filter returns true for elements to remove
+     * @return number of elements removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        while (head != null && filter.test(head.value)) {
+            head = head.next;
+            removed++;
+        }
+        if (head != null) {
+            Node<T> previous = head;
+            Node<T> current = head.next;
+            while (current != null) {
+                if (filter.test(current.value)) {
+                    previous.next = current.next;
+                    removed++;
+                } else {
+                    previous = current;
+                }
+                current = current.next;
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator over the elements.
+     * Each step and each remove() runs in O(1) time.
+     *
+     * @return iterator starting at the head
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Cursor that remembers the node before the last returned one so that
+     * remove() can unlink without walking from the head.
+     */
+    private class Itr implements Iterator<T> {
+        /** Node to be returned by the next call to next(). */
+        private Node<T> next = head;
+
+        /** Node returned by the last next(), or null after remove(). */
+        private Node<T> lastReturned;
+
+        /** Last surviving node before {next} (null while at the head). */
+        private Node<T> previous;
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            if (lastReturned != null) {
+                previous = lastReturned;
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.value;
+        }
+
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (previous == null) {
+                head = next;
+            } else {
+                previous.next = next;
+            }
+            lastReturned = null;
+            size--;
+        }
+    }
+
     /**
      * Return the node at the given index by walking forward from the head.
      * Runs in O(n) time.
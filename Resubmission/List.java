@@ -1,10 +1,38 @@
+import java.util.Iterator;
+import java.util.function.Predicate;
+
 /**
  * minimalListInterfaceUsedByMassiveMotion.
  */
-public interface List<T> {
+public interface List<T> extends Iterable<T> {
     void add(int index, T element);
     boolean add(T element);
     T get(int index);
     T remove(int index);
     int size();
+
+    /**
+     * Append {@code elements[0..count)} in order. Backends override this to
+     * make room once and copy in bulk; the default adds one at a time.
+     */
+    default void addAll(T[] elements, int count) {
+        for (int i = 0; i < count; i++) {
+            add(elements[i]);
+        }
+    }
+
+    /**
+     * Forward cursor over the list. {@link Iterator#remove()} unlinks the
+     * element last returned by {@code next()} without restarting the walk.
+     */
+    Iterator<T> iterator();
+
+    /**
+     * Remove every element matching {@code filter} in a single pass,
+     * keeping the survivors in their original order. The filter is called
+     * exactly once per element, front to back.
+     *
+     * @return number of elements removed
+     */
+    int removeIf(Predicate<? super T> filter);
 }
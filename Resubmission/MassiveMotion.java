@@ -1,243 +1,196 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Properties;
-import java.util.Random;
 
 /**
- * Swing animation with a config driven list.
- * Spawns white stars from the edges and an orange sun at the center.
+ * Swing viewer for a {@link SimulationEngine}.
+ * Spawns white stars from the world edges and an orange sun at the center;
+ * a {@link Camera} shows all or part of the world in the window.
  * The list implementation is chosen via MassiveMotion.txt using the key "list".
+ *
+ * The engine ticks on its own thread and publishes a {@link FrameSnapshot}
+ * after every tick; painting only ever reads the latest snapshot, so a slow
+ * repaint never holds up the simulation and a slow tick never blocks painting.
  */
-public class MassiveMotion extends JPanel implements ActionListener {
+public class MassiveMotion extends JPanel implements TickListener {
 
-    /** Swing timer that drives the animation ticks. */
-    protected Timer tm;
+    /** Simulation shown by this panel. */
+    private final SimulationEngine engine;
 
-    /** Window width set by config or default. */
-    private int windowWidth = 1024;
+    /** Draws the bodies each frame (renderer key). */
+    private final Renderer renderer;
 
-    /** Window height set by config or default. */
-    private int windowHeight = 768;
+    /** World-to-panel mapping, moved by the mouse (EDT only). */
+    private final Camera camera = new Camera();
 
-    /** Random number generator for spawning and velocities. */
-    private final Random rng = new Random();
+    /** Hands snapshots from the simulation thread to the EDT. */
+    private final SnapshotExchange frames = new SnapshotExchange();
 
-    /** Container of bodies constructed after reading the list choice. */
-    private List<CelestialBody> bodies;
-
-    /** Timer delay in milliseconds. */
-    private int timerDelay = 75;
-
-    /** Per tick spawn probability on top or bottom edges. */
-    private double genX = 0.06;
-
-    /** Per tick spawn probability on left or right edges. */
-    private double genY = 0.06;
-
-    /** Radius of newly spawned white stars. */
-    private int bodySize = 10;
-
-    /** Maximum absolute component speed for spawned stars. */
-    private int bodyVelocity = 3;
-
-    /** Radius of the center orange sun. */
-    private int starSize = 30;
-
-    /** Sun velocity along x. */
-    private double starVX = 0;
-
-    /** Sun velocity along y. */
-    private double starVY = 0;
-
-    /** Sun center x coordinate. */
-    private int starX;
-
-    /** Sun center y coordinate. */
-    private int starY;
+    /** Thread running the engine, started by {@link #start()}. */
+    private Thread simulation;
 
     /**
-     * Load config, choose the list implementation, set up the panel and timer, and create the sun.
+     * Set up the panel for an existing engine.
+     * @param engine the simulation to drive and draw
      */
-    public MassiveMotion() {
-        Properties p = new Properties();
-        try (FileInputStream fis = new FileInputStream("MassiveMotion.txt")) {
-            p.load(fis);
-        } catch (IOException ignored) { }
-
-        /** Choose list implementation from file. */
-        String listChoice = p.getProperty("list", "arraylist").trim().toLowerCase();
-        switch (listChoice) {
-            case "arraylist":
-                bodies = new ArrayList<>();
-                break;
-            case "linkedlist":
-                bodies = new LinkedList<>();
-                break;
-            case "dummyheadlinkedlist":
-                bodies = new DummyHeadLinkedList<>();
-                break;
-            case "doublylinkedlist":
-                bodies = new DoublyLinkedList<>();
-                break;
-            default:
-                System.out.println("Unknown list '" + listChoice + "'. Defaulting to ArrayList.");
-                bodies = new ArrayList<>();
-        }
-
-        /** Load numeric and position config or keep defaults. */
-        timerDelay   = getInt(p, "timer_delay",   timerDelay);
-        windowWidth  = getInt(p, "window_size_x", windowWidth);
-        windowHeight = getInt(p, "window_size_y", windowHeight);
-
-        genX         = getDouble(p, "gen_x", genX);
-        genY         = getDouble(p, "gen_y", genY);
-        bodySize     = getInt(p, "body_size", bodySize);
-        bodyVelocity = getInt(p, "body_velocity", bodyVelocity);
-
-        starSize     = getInt(p, "star_size", starSize);
-        starVX       = getDouble(p, "star_velocity_x", starVX);
-        starVY       = getDouble(p, "star_velocity_y", starVY);
-        starX        = getInt(p, "star_position_x", windowWidth / 2);
-        starY        = getInt(p, "star_position_y", windowHeight / 2);
+    public MassiveMotion(SimulationEngine engine) {
+        this.engine = engine;
+        SimulationConfig config = engine.config();
+        this.renderer = Renderer.create(config.renderer);
 
         /** Initialize canvas and background color. */
-        setPreferredSize(new Dimension(windowWidth, windowHeight));
+        setPreferredSize(new Dimension(config.windowWidth, config.windowHeight));
         setBackground(Color.BLACK);
 
-        /** Initialize and start the Swing timer with the configured delay. */
-        tm = new Timer(timerDelay, this);
+        /** Start showing the whole world; wheel zooms, drag pans, double-click fits again. */
+        camera.fit(config.worldWidth, config.worldHeight, config.windowWidth, config.windowHeight);
+        CameraControls.install(camera, this, config.worldWidth, config.worldHeight);
 
-        /** Add the central sun to the bodies list. */
-        bodies.add(new CelestialBody(starX, starY, starVX, starVY, starSize, Color.ORANGE, true));
+        engine.addTickListener(this);
     }
 
     /**
-     * Paint all bodies and ensure the timer runs.
-     * @param g the graphics context provided by Swing
+     * Start ticking the engine on a background thread, one tick per timer_delay.
      */
-    @Override
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
+    public void start() {
+        double ticksPerSecond = 1000.0 / Math.max(1, engine.config().timerDelay);
+        simulation = new Thread(() -> {
+            try {
+                engine.run(Long.MAX_VALUE, ticksPerSecond);
+            } catch (InterruptedException ignored) { }
+        }, "simulation");
+        simulation.setDaemon(true);
+        simulation.start();
+    }
 
-        for (int i = 0; i < bodies.size(); i++) {
-            bodies.get(i).draw(g2);
+    /**
+     * Stop the simulation thread after its current tick and shut the engine
+     * down, so the trajectory gets its queued frames and footer, the metrics
+     * CSV is finished and an off-heap store is released.
+     *
+     * @throws InterruptedException if interrupted while waiting for the tick to finish
+     */
+    public void stop() throws InterruptedException {
+        if (simulation != null) {
+            simulation.interrupt();
+            simulation.join();
         }
-
-        tm.start();
+        engine.shutdown();
     }
 
     /**
-     * One animation tick: move bodies, cull offscreen, maybe spawn new ones, and repaint.
-     * @param e the action event fired by the timer
+     * Publish the finished tick and ask Swing for a repaint (simulation thread).
+     * @param engine the engine that just ticked
      */
     @Override
-    public void actionPerformed(ActionEvent e) {
-        /** Move each body according to its velocity. */
-        for (int i = 0; i < bodies.size(); i++) {
-            bodies.get(i).step();
-        }
-
-        /** Remove offscreen bodies by iterating backward to keep indices valid. */
-        for (int i = bodies.size() - 1; i >= 0; i--) {
-            if (bodies.get(i).isOffscreen(windowWidth, windowHeight)) {
-                bodies.remove(i);
-            }
-        }
-
-        /** Possibly spawn new stars from the edges. */
-        maybeSpawnXEdge();
-        maybeSpawnYEdge();
+    public void afterTick(SimulationEngine engine) {
+        frames.backBuffer().capture(engine.bodies(), engine.tickCount());
+        frames.publish();
 
-        /** Request a repaint for the next frame. */
+        /** Request a repaint for the next frame; Swing coalesces pending requests. */
         repaint();
     }
 
     /**
-     * Possibly spawn a star from the top or bottom edge and push inward vertically.
+     * Paint the newest published snapshot.
+     * @param g the graphics context provided by Swing
      */
-    private void maybeSpawnXEdge() {
-        if (rng.nextDouble() < genX) {
-            boolean top = rng.nextBoolean();
-            int y = top ? 0 : windowHeight;
-            int x = rng.nextInt(windowWidth);
-            int[] v = nonZeroVelocity();
-            int vy = top ? Math.max(1, v[1]) : Math.min(-1, v[1]);
-            bodies.add(new CelestialBody(x, y, v[0], vy, bodySize, Color.WHITE, false));
-        }
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+
+        long start = System.nanoTime();
+        renderer.render(g2, frames.latest(), camera, getWidth(), getHeight());
+        engine.metrics().record(TickMetrics.Phase.PAINT, System.nanoTime() - start);
     }
 
     /**
-     * Possibly spawn a star from the left or right edge and push inward horizontally.
+     * Create the window (or run headless, or replay a trajectory) and start the program.
+     * Usage: {@code java MassiveMotion [config] [--headless] [--ticks N] [--rate TICKS_PER_SECOND] [--replay FILE]}
+     * @param args command line arguments
      */
-    private void maybeSpawnYEdge() {
-        if (rng.nextDouble() < genY) {
-            boolean left = rng.nextBoolean();
-            int x = left ? 0 : windowWidth;
-            int y = rng.nextInt(windowHeight);
-            int[] v = nonZeroVelocity();
-            int vx = left ? Math.max(1, v[0]) : Math.min(-1, v[0]);
-            bodies.add(new CelestialBody(x, y, vx, v[1], bodySize, Color.WHITE, false));
+    public static void main(String[] args) throws InterruptedException {
+        String configPath = "MassiveMotion.txt";
+        boolean headless = false;
+        long ticks = Long.MAX_VALUE;
+        double rate = 0;
+        String replay = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--headless":
+                    headless = true;
+                    break;
+                case "--ticks":
+                    ticks = Long.parseLong(args[++i]);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "--replay":
+                    replay = args[++i];
+                    break;
+                default:
+                    configPath = args[i];
+            }
         }
-    }
 
-    /**
-     * Generate a random non zero velocity vector where each component is in
-     * the closed interval [-bodyVelocity, bodyVelocity].
-     * @return a two element array containing vx and vy
-     */
-    private int[] nonZeroVelocity() {
-        int vx = 0, vy = 0;
-        while (vx == 0) vx = rng.nextInt(bodyVelocity * 2 + 1) - bodyVelocity;
-        while (vy == 0) vy = rng.nextInt(bodyVelocity * 2 + 1) - bodyVelocity;
-        return new int[]{vx, vy};
-    }
+        if (replay != null) {
+            try {
+                ReplayViewer.open(SimulationConfig.load(configPath), replay);
+                System.out.println("Massive Motion replaying " + replay + "...");
+            } catch (IOException e) {
+                System.out.println("Could not open '" + replay + "': " + e.getMessage());
+            }
+            return;
+        }
 
-    /**
-     * Parse an integer property or return the provided default.
-     * @param p    the loaded properties
-     * @param key  the property key
-     * @param def  the default value
-     * @return the parsed integer or the default
-     */
-    private static int getInt(Properties p, String key, int def){
-        try {
-            return Integer.parseInt(p.getProperty(key, String.valueOf(def)).trim());
-        } catch (Exception e){
-            return def;
+        SimulationEngine engine = new SimulationEngine(SimulationConfig.load(configPath));
+
+        /** Apply edits to the config file between ticks (watch_config). */
+        ConfigWatcher watcher = null;
+        if (engine.config().watchConfig) {
+            try {
+                watcher = new ConfigWatcher(configPath);
+                engine.addTickListener(watcher);
+            } catch (IOException e) {
+                System.out.println("Could not watch '" + configPath + "' (" + e.getMessage() + "). Edits need a restart.");
+            }
         }
-    }
 
-    /**
-     * Parse a double property or return the provided default.
-     * @param p    the loaded properties
-     * @param key  the property key
-     * @param def  the default value
-     * @return the parsed double or the default
-     */
-    private static double getDouble(Properties p, String key, double def){
-        try {
-            return Double.parseDouble(p.getProperty(key, String.valueOf(def)).trim());
-        } catch (Exception e){
-            return def;
+        if (headless) {
+            System.out.println("Massive Motion starting headless (seed = " + engine.config().seed + ")...");
+            long start = System.nanoTime();
+            engine.run(ticks, rate);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d ticks in %.3f s (%.1f ticks/s), %d bodies alive, last tick allocated %d bytes%n",
+                    engine.tickCount(), seconds, engine.tickCount() / seconds, engine.bodies().size(),
+                    engine.lastTickAllocatedBytes());
+            engine.shutdown();
+            if (watcher != null) {
+                watcher.close();
+            }
+            return;
         }
-    }
 
-    /**
-     * Create the window and start the program.
-     * @param args command line arguments (unused)
-     */
-    public static void main(String[] args) {
         JFrame jf = new JFrame("Massive Motion");
-        MassiveMotion mm = new MassiveMotion();
-        jf.setSize(mm.windowWidth, mm.windowHeight);
+        MassiveMotion mm = new MassiveMotion(engine);
+        jf.setSize(engine.config().windowWidth, engine.config().windowHeight);
         jf.add(mm);
         jf.setVisible(true);
         jf.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        /** Closing the window exits the JVM; finish the engine's files first. */
+        ConfigWatcher closing = watcher;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                mm.stop();
+            } catch (InterruptedException ignored) { }
+            if (closing != null) {
+                closing.close();
+            }
+        }, "shutdown"));
+        mm.start();
         System.out.println("Massive Motion starting...");
     }
 }
@@ -0,0 +1,176 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Every {@code metrics_interval} ticks, prints one line of {@link TickMetrics}
+ * to stdout, optionally appends a CSV row, and publishes the values to JMX.
+ * Timing histograms are reset after each report, so percentiles cover one
+ * interval; the body counters are cumulative.
+ */
+public class MetricsReporter implements TickListener, MetricsReporterMBean {
+
+    /** Name the MBean is registered under. */
+    private static final String OBJECT_NAME = "MassiveMotion:type=TickMetrics";
+
+    /** Phases reported, in column order. */
+    private static final TickMetrics.Phase[] PHASES = TickMetrics.Phase.values();
+
+    /** Source of the timings and counters. */
+    private final TickMetrics metrics;
+
+    /** Ticks between reports. */
+    private final int interval;
+
+    /** CSV output, or null when metrics_csv is unset or could not be opened. */
+    private PrintWriter csv;
+
+    /** {@link System#nanoTime()} at the previous report. */
+    private long lastReportNanos = System.nanoTime();
+
+    /** Tick count at the previous report. */
+    private long lastReportTick;
+
+    /** Values of the latest report, read by JMX threads. */
+    private volatile long tick;
+    private volatile double ticksPerSecond;
+    private volatile int liveBodies;
+    private volatile long spawned, culled, merged;
+    private volatile double tickP50, tickP99, tickMax, paintP99;
+
+    /**
+     * @param metrics  timings and counters to report
+     * @param interval ticks between reports (&gt; 0)
+     * @param csvPath  file to write CSV rows to, or empty for none
+     * @param jmx      whether to register the MBean
+     */
+    public MetricsReporter(TickMetrics metrics, int interval, String csvPath, boolean jmx) {
+        this.metrics = metrics;
+        this.interval = interval;
+        if (!csvPath.isEmpty()) {
+            try {
+                csv = new PrintWriter(new FileWriter(csvPath));
+                csv.println(csvHeader());
+                csv.flush();
+            } catch (IOException e) {
+                System.out.println("Could not open metrics_csv '" + csvPath + "': " + e.getMessage());
+            }
+        }
+        if (jmx) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                System.out.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Report when the tick count reaches a multiple of the interval.
+     * @param engine the engine that just ticked
+     */
+    @Override
+    public void afterTick(SimulationEngine engine) {
+        long now = engine.tickCount();
+        if (now % interval != 0) return;
+
+        long nanos = System.nanoTime();
+        ticksPerSecond = (now - lastReportTick) * 1e9 / Math.max(1, nanos - lastReportNanos);
+        lastReportNanos = nanos;
+        lastReportTick = now;
+        tick = now;
+        liveBodies = engine.bodies().size();
+        spawned = metrics.spawned();
+        culled = metrics.culled();
+        merged = metrics.merged();
+        LatencyHistogram ticks = metrics.histogram(TickMetrics.Phase.TICK);
+        tickP50 = micros(ticks.percentile(50));
+        tickP99 = micros(ticks.percentile(99));
+        tickMax = micros(ticks.max());
+        paintP99 = micros(metrics.histogram(TickMetrics.Phase.PAINT).percentile(99));
+
+        System.out.println(summaryLine());
+        if (csv != null) {
+            csv.println(csvRow());
+            csv.flush();
+        }
+        metrics.resetTimings();
+    }
+
+    /**
+     * Flush and close the CSV file, if any.
+     */
+    public void close() {
+        if (csv != null) {
+            csv.close();
+            csv = null;
+        }
+    }
+
+    /**
+     * One stdout line: throughput, counters, then p50/p99/max per phase that has samples.
+     */
+    private String summaryLine() {
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("[metrics] tick %d: %.1f ticks/s, %d live, %d spawned, %d culled, %d merged",
+                tick, ticksPerSecond, liveBodies, spawned, culled, merged));
+        for (TickMetrics.Phase phase : PHASES) {
+            LatencyHistogram h = metrics.histogram(phase);
+            if (h.count() == 0) continue;
+            line.append(String.format(" | %s %.1f/%.1f/%.1f us", phase.name().toLowerCase(),
+                    micros(h.percentile(50)), micros(h.percentile(99)), micros(h.max())));
+        }
+        return line.toString();
+    }
+
+    /**
+     * CSV column names matching {@link #csvRow()}.
+     */
+    private static String csvHeader() {
+        StringBuilder header = new StringBuilder("tick,ticks_per_s,live,spawned,culled,merged");
+        for (TickMetrics.Phase phase : PHASES) {
+            String name = phase.name().toLowerCase();
+            header.append(',').append(name).append("_count")
+                  .append(',').append(name).append("_p50_us")
+                  .append(',').append(name).append("_p99_us")
+                  .append(',').append(name).append("_max_us");
+        }
+        return header.toString();
+    }
+
+    /**
+     * One CSV row for the current interval.
+     */
+    private String csvRow() {
+        StringBuilder row = new StringBuilder();
+        row.append(tick).append(',').append(String.format("%.2f", ticksPerSecond))
+           .append(',').append(liveBodies).append(',').append(spawned)
+           .append(',').append(culled).append(',').append(merged);
+        for (TickMetrics.Phase phase : PHASES) {
+            LatencyHistogram h = metrics.histogram(phase);
+            row.append(',').append(h.count())
+               .append(',').append(String.format("%.3f", micros(h.percentile(50))))
+               .append(',').append(String.format("%.3f", micros(h.percentile(99))))
+               .append(',').append(String.format("%.3f", micros(h.max())));
+        }
+        return row.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    @Override public long getTick() { return tick; }
+    @Override public double getTicksPerSecond() { return ticksPerSecond; }
+    @Override public int getLiveBodies() { return liveBodies; }
+    @Override public long getSpawned() { return spawned; }
+    @Override public long getCulled() { return culled; }
+    @Override public long getMerged() { return merged; }
+    @Override public double getTickP50Micros() { return tickP50; }
+    @Override public double getTickP99Micros() { return tickP99; }
+    @Override public double getTickMaxMicros() { return tickMax; }
+    @Override public double getPaintP99Micros() { return paintP99; }
+}
@@ -0,0 +1,37 @@
+/**
+ * JMX view of the latest {@link MetricsReporter} interval
+ * (registered as {@code MassiveMotion:type=TickMetrics} when metrics_jmx = true).
+ * Times are in microseconds.
+ */
+public interface MetricsReporterMBean {
+
+    /** @return tick count at the last report */
+    long getTick();
+
+    /** @return ticks per second over the last interval */
+    double getTicksPerSecond();
+
+    /** @return bodies alive at the last report */
+    int getLiveBodies();
+
+    /** @return bodies spawned since start */
+    long getSpawned();
+
+    /** @return bodies culled since start */
+    long getCulled();
+
+    /** @return bodies absorbed by collisions since start */
+    long getMerged();
+
+    /** @return median tick time over the last interval */
+    double getTickP50Micros();
+
+    /** @return 99th percentile tick time over the last interval */
+    double getTickP99Micros();
+
+    /** @return slowest tick over the last interval */
+    double getTickMaxMicros();
+
+    /** @return 99th percentile paint time over the last interval */
+    double getPaintP99Micros();
+}
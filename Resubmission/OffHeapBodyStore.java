@@ -0,0 +1,462 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Body container that keeps every body as a fixed-width record outside the
+ * Java heap, so tens of millions of bodies add almost nothing for the
+ * garbage collector to trace: the heap only holds the segment table.
+ *
+ * Records are {@link #RECORD_BYTES} bytes (one cache line) and live in
+ * segments of {@link #SEGMENT_RECORDS} records. A segment is either a direct
+ * buffer or a window of a memory-mapped scratch file; with a file the OS
+ * pages cold records out, so the population can outgrow physical memory.
+ * Growing only adds segments, so rows never move; capacity is kept when
+ * bodies are removed.
+ *
+ * As in {@link BodyStore}, the {@link List} methods copy {@link CelestialBody}
+ * values in and out, and the iterator hands out one reused view.
+ */
+public class OffHeapBodyStore implements BodyRecords {
+
+    /** Bytes per body record. */
+    static final int RECORD_BYTES = 64;
+
+    /** log2 of {@link #SEGMENT_RECORDS}. */
+    private static final int SEGMENT_SHIFT = 16;
+
+    /** Records per segment (4 MB). */
+    static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+
+    /** Row bits that select the record inside its segment. */
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+    /** Record layout: byte offsets of each field. */
+    private static final int POSITION_X = 0, POSITION_Y = 8, VELOCITY_X = 16, VELOCITY_Y = 24,
+            MASS = 32, ID = 40, RADIUS = 48, COLOR = 52, IS_STAR = 56;
+
+    /** Scratch file the segments are mapped from, or {@code null} for direct memory. */
+    private final FileChannel file;
+
+    /** Allocated segments; rows {@code [0, segmentCount * SEGMENT_RECORDS)} are backed. */
+    private ByteBuffer[] segments = new ByteBuffer[4];
+
+    /** Number of allocated segments. */
+    private int segmentCount;
+
+    /** Current number of stored bodies. */
+    private int size;
+
+    /** Views {@link #merge} reads the two bodies into. */
+    private final CelestialBody mergeInto = new CelestialBody(0, 0, 0, 0, 0, null, false),
+            mergeFrom = new CelestialBody(0, 0, 0, 0, 0, null, false);
+
+    /**
+     * Keep the records in direct buffers (bounded by -XX:MaxDirectMemorySize).
+     */
+    public OffHeapBodyStore() {
+        this.file = null;
+    }
+
+    /**
+     * Keep the records in a memory-mapped scratch file, created or truncated
+     * here and deleted by {@link #close()} (on Unix the name is unlinked at once;
+     * the mappings keep the space until the store is released).
+     *
+     * @param path scratch file
+     * @throws IOException if the file cannot be opened
+     */
+    public OffHeapBodyStore(String path) throws IOException {
+        this.file = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.SPARSE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Return the current number of bodies (O(1)).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append a body by copying its fields into the next record (O(1); a new segment when full).
+     */
+    public boolean add(CelestialBody body) {
+        grow(size + 1);
+        write(size++, body);
+        return true;
+    }
+
+    /**
+     * Append {@code count} bodies with one capacity check, copying each one's fields in (O(count)).
+     */
+    public void addAll(CelestialBody[] bodies, int count) {
+        grow(size + count);
+        for (int i = 0; i < count; i++) {
+            write(size++, bodies[i]);
+        }
+    }
+
+    /**
+     * Insert a body at the given index, moving every later record up one (O(n)).
+     */
+    public void add(int index, CelestialBody body) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        grow(size + 1);
+        shift(index, index + 1, size - index);
+        write(index, body);
+        size++;
+    }
+
+    /**
+     * Return a fresh {@link CelestialBody} copied from record {@code index} (O(1)).
+     * Changes to the returned object are not written back.
+     */
+    public CelestialBody get(int index) {
+        return get(index, new CelestialBody(0, 0, 0, 0, 0, null, false));
+    }
+
+    /**
+     * Copy record {@code index} into {@code into} and return it (O(1), no allocation).
+     */
+    public CelestialBody get(int index, CelestialBody into) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        read(index, into);
+        return into;
+    }
+
+    /**
+     * Overwrite record {@code index} with the values of {@code body} (O(1));
+     * the object itself is not kept.
+     */
+    public void set(int index, CelestialBody body) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        write(index, body);
+    }
+
+    /**
+     * Remove record {@code index} preserving order, moving every later record down one (O(n)).
+     */
+    public CelestialBody remove(int index) {
+        CelestialBody out = get(index);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        return out;
+    }
+
+    /**
+     * Order-preserving single-pass removal through one reused view; changes the
+     * filter makes to a surviving view are written back, as in {@link BodyStore}.
+     */
+    public int removeIf(Predicate<? super CelestialBody> filter) {
+        CelestialBody view = new CelestialBody(0, 0, 0, 0, 0, null, false);
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            read(read, view);
+            if (!filter.test(view)) {
+                write(write++, view);
+            }
+        }
+        int removed = size - write;
+        size = write;
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator that loads each record into one reused view.
+     * The view is a copy: edits to it are not written back (use {@link #set}),
+     * and it must not be kept past the next call to {@code next()}.
+     */
+    public Iterator<CelestialBody> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Drop every body and release the segments; a file-backed store also
+     * deletes its scratch file and cannot grow again.
+     *
+     * @throws IOException if the scratch file cannot be closed
+     */
+    public void close() throws IOException {
+        size = 0;
+        Arrays.fill(segments, null);
+        segmentCount = 0;
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    /**
+     * Advance every body by its velocity.
+     */
+    public void step() {
+        step(0, size);
+    }
+
+    /**
+     * Advance rows {@code [from, to)} by their velocity; disjoint ranges may run concurrently.
+     */
+    public void step(int from, int to) {
+        for (int i = from; i < to; i++) {
+            ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+            int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+            s.putDouble(at + POSITION_X, s.getDouble(at + POSITION_X) + s.getDouble(at + VELOCITY_X));
+            s.putDouble(at + POSITION_Y, s.getDouble(at + POSITION_Y) + s.getDouble(at + VELOCITY_Y));
+        }
+    }
+
+    /**
+     * Set {@code marks[i]} for rows {@code [from, to)} to whether the body is offscreen.
+     */
+    public void markOffscreen(int from, int to, int width, int height, boolean[] marks) {
+        for (int i = from; i < to; i++) {
+            marks[i] = isOffscreen(i, width, height);
+        }
+    }
+
+    /**
+     * Swap-remove every row whose mark is set. Marks travel with the rows, so the
+     * result is the same as {@link #cullOffscreen(int, int)} on the same rows.
+     *
+     * @return number of bodies removed
+     */
+    public int removeMarked(boolean[] marks) {
+        int before = size;
+        int i = 0;
+        while (i < size) {
+            if (marks[i]) {
+                move(--size, i);
+                marks[i] = marks[size];
+            } else {
+                i++;
+            }
+        }
+        return before - size;
+    }
+
+    /**
+     * Drop every body that is fully outside {@code [0,width] × [0,height]},
+     * overwriting each culled record with the last one (order is not kept).
+     *
+     * @return number of bodies removed
+     */
+    public int cullOffscreen(int width, int height) {
+        int before = size;
+        int i = 0;
+        while (i < size) {
+            if (isOffscreen(i, width, height)) {
+                move(--size, i);            // Re-test the record swapped into i
+            } else {
+                i++;
+            }
+        }
+        return before - size;
+    }
+
+    /**
+     * Merge record {@code absorbed} into record {@code survivor} with {@link CelestialBody#absorb}.
+     * Record {@code absorbed} is left as it was; the caller removes it.
+     */
+    public void merge(int survivor, int absorbed) {
+        read(survivor, mergeInto);
+        read(absorbed, mergeFrom);
+        mergeInto.absorb(mergeFrom);
+        write(survivor, mergeInto);
+    }
+
+    /** x-coordinate of record {@code index} (below {@link #size()}). */
+    public double positionX(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getDouble((index & SEGMENT_MASK) * RECORD_BYTES + POSITION_X);
+    }
+
+    /** y-coordinate of record {@code index}. */
+    public double positionY(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getDouble((index & SEGMENT_MASK) * RECORD_BYTES + POSITION_Y);
+    }
+
+    /** Radius of record {@code index}. */
+    public int radius(int index) {
+        return segments[index >>> SEGMENT_SHIFT].getInt((index & SEGMENT_MASK) * RECORD_BYTES + RADIUS);
+    }
+
+    /**
+     * Copy the positions, velocities and masses into {@code columns}, sized to
+     * match; its other columns are left stale. Gravity integrates these copies.
+     */
+    void copyMotionTo(BodyStore columns) {
+        columns.setSize(size);
+        double[] x = columns.positionX(), y = columns.positionY();
+        double[] vx = columns.velocityX(), vy = columns.velocityY(), mass = columns.mass();
+        for (int i = 0; i < size; i++) {
+            ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+            int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+            x[i] = s.getDouble(at + POSITION_X);
+            y[i] = s.getDouble(at + POSITION_Y);
+            vx[i] = s.getDouble(at + VELOCITY_X);
+            vy[i] = s.getDouble(at + VELOCITY_Y);
+            mass[i] = s.getDouble(at + MASS);
+        }
+    }
+
+    /**
+     * Write the positions and velocities from {@link #copyMotionTo} back into the records.
+     */
+    void copyMotionFrom(BodyStore columns) {
+        double[] x = columns.positionX(), y = columns.positionY();
+        double[] vx = columns.velocityX(), vy = columns.velocityY();
+        for (int i = 0; i < size; i++) {
+            ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+            int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+            s.putDouble(at + POSITION_X, x[i]);
+            s.putDouble(at + POSITION_Y, y[i]);
+            s.putDouble(at + VELOCITY_X, vx[i]);
+            s.putDouble(at + VELOCITY_Y, vy[i]);
+        }
+    }
+
+    /**
+     * Same test as {@link CelestialBody#isOffscreen(int, int)} on record {@code i}.
+     */
+    private boolean isOffscreen(int i, int width, int height) {
+        ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+        int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+        double x = s.getDouble(at + POSITION_X), y = s.getDouble(at + POSITION_Y);
+        int r = s.getInt(at + RADIUS);
+        return (x + r < 0) || (x - r > width) || (y + r < 0) || (y - r > height);
+    }
+
+    /**
+     * Copy record {@code i} into an existing view object.
+     */
+    private void read(int i, CelestialBody view) {
+        ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+        int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+        view.positionX = s.getDouble(at + POSITION_X);
+        view.positionY = s.getDouble(at + POSITION_Y);
+        view.velocityX = s.getDouble(at + VELOCITY_X);
+        view.velocityY = s.getDouble(at + VELOCITY_Y);
+        view.mass = s.getDouble(at + MASS);
+        view.id = s.getLong(at + ID);
+        view.radius = s.getInt(at + RADIUS);
+        int argb = s.getInt(at + COLOR);
+        if (view.color == null || view.color.getRGB() != argb) {
+            view.color = new Color(argb, true);
+        }
+        view.isStar = s.get(at + IS_STAR) != 0;
+    }
+
+    /**
+     * Copy a body's fields into record {@code i}.
+     */
+    private void write(int i, CelestialBody body) {
+        ByteBuffer s = segments[i >>> SEGMENT_SHIFT];
+        int at = (i & SEGMENT_MASK) * RECORD_BYTES;
+        s.putDouble(at + POSITION_X, body.positionX);
+        s.putDouble(at + POSITION_Y, body.positionY);
+        s.putDouble(at + VELOCITY_X, body.velocityX);
+        s.putDouble(at + VELOCITY_Y, body.velocityY);
+        s.putDouble(at + MASS, body.mass);
+        s.putLong(at + ID, body.id);
+        s.putInt(at + RADIUS, body.radius);
+        s.putInt(at + COLOR, body.color.getRGB());
+        s.put(at + IS_STAR, body.isStar ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Copy record {@code from} over record {@code to}, eight bytes at a time.
+     */
+    private void move(int from, int to) {
+        ByteBuffer src = segments[from >>> SEGMENT_SHIFT], dst = segments[to >>> SEGMENT_SHIFT];
+        int in = (from & SEGMENT_MASK) * RECORD_BYTES, out = (to & SEGMENT_MASK) * RECORD_BYTES;
+        for (int k = 0; k < RECORD_BYTES; k += Long.BYTES) {
+            dst.putLong(out + k, src.getLong(in + k));
+        }
+    }
+
+    /**
+     * Move {@code count} records starting at {@code from} to {@code to}; the ranges may overlap.
+     */
+    private void shift(int from, int to, int count) {
+        if (to > from) {
+            for (int k = count - 1; k >= 0; k--) {
+                move(from + k, to + k);
+            }
+        } else {
+            for (int k = 0; k < count; k++) {
+                move(from + k, to + k);
+            }
+        }
+    }
+
+    /**
+     * Allocate segments until {@code requiredCapacity} records are backed.
+     */
+    private void grow(int requiredCapacity) {
+        while ((long) segmentCount * SEGMENT_RECORDS < requiredCapacity) {
+            if (segmentCount == segments.length) {
+                segments = Arrays.copyOf(segments, segments.length * 2);
+            }
+            segments[segmentCount] = allocate(segmentCount);
+            segmentCount++;
+        }
+    }
+
+    /**
+     * A new native-order segment: direct memory, or segment {@code k} of the scratch file.
+     */
+    private ByteBuffer allocate(int k) {
+        long bytes = (long) SEGMENT_RECORDS * RECORD_BYTES;
+        if (file == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        }
+        try {
+            return file.map(FileChannel.MapMode.READ_WRITE, k * bytes, bytes).order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not map body segment " + k, e);
+        }
+    }
+
+    /**
+     * Record cursor handing out one reused view; nothing is written back,
+     * so a read-only walk costs one load per record.
+     */
+    private class Itr implements Iterator<CelestialBody> {
+        /** Record of the next view to hand out. */
+        private int cursor;
+
+        /** Record last handed out, or -1 (none yet, or already removed). */
+        private int lastReturned = -1;
+
+        /** The single view object reused for every record. */
+        private final CelestialBody view = new CelestialBody(0, 0, 0, 0, 0, null, false);
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public CelestialBody next() {
+            if (cursor >= size) throw new NoSuchElementException();
+            lastReturned = cursor++;
+            read(lastReturned, view);
+            return view;
+        }
+
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            OffHeapBodyStore.this.shift(lastReturned + 1, lastReturned, size - lastReturned - 1);
+            size--;
+            cursor = lastReturned;
+            lastReturned = -1;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the per-body parts of a tick on a {@link ForkJoinPool}.
+ *
+ * Work is split into contiguous index ranges; every body is updated only
+ * from its own state (or, for gravity, from the solver's read-only tree),
+ * and removals are applied afterwards in a single sequential pass in the
+ * same order the single-threaded tick uses. Results are therefore
+ * bit-identical to {@code threads = 1}.
+ */
+public class ParallelTick {
+
+    /**
+     * Work over one half-open index range.
+     */
+    public interface RangeTask {
+        void run(int from, int to);
+    }
+
+    /** Smallest range worth handing to another worker. */
+    private static final int MIN_CHUNK = 1024;
+
+    /** Worker pool sized by the {@code threads} config key. */
+    private final ForkJoinPool pool;
+
+    /** Object-list bodies gathered for indexed access, grown on demand. */
+    private CelestialBody[] gathered = new CelestialBody[0];
+
+    /** Per-body "left the window this tick" flags, grown on demand. */
+    private boolean[] offscreen = new boolean[0];
+
+    /**
+     * @param threads number of worker threads
+     */
+    public ParallelTick(int threads) {
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Split {@code [0, n)} into chunks and run {@code task} on them in parallel.
+     *
+     * @param n    number of items
+     * @param task work applied to each chunk
+     */
+    public void forRange(int n, RangeTask task) {
+        int chunk = Math.max(MIN_CHUNK, n / (pool.getParallelism() * 4));
+        if (n <= chunk) {
+            task.run(0, n);
+        } else {
+            pool.invoke(new Split(task, 0, n, chunk));
+        }
+    }
+
+    /**
+     * Move every body and remove the ones that left the window.
+     * Removed object-list bodies are handed to {@code pool}.
+     *
+     * @return number of bodies removed
+     */
+    public int stepAndCull(List<CelestialBody> bodies, int width, int height, BodyPool pool) {
+        return cull(bodies, width, height, pool, true);
+    }
+
+    /**
+     * Remove the bodies that are outside the window without moving them
+     * (gravity has already moved them this tick).
+     *
+     * @return number of bodies removed
+     */
+    public int cull(List<CelestialBody> bodies, int width, int height, BodyPool pool) {
+        return cull(bodies, width, height, pool, false);
+    }
+
+    /**
+     * Mark offscreen bodies in parallel, optionally stepping each first, then remove them in order.
+     */
+    private int cull(List<CelestialBody> bodies, int width, int height, BodyPool pool, boolean step) {
+        int n = bodies.size();
+        if (offscreen.length < n) {
+            offscreen = new boolean[n * 2];
+        }
+        boolean[] marks = offscreen;
+
+        if (bodies instanceof BodyRecords) {
+            BodyRecords store = (BodyRecords) bodies;
+            forRange(n, (from, to) -> {
+                if (step) store.step(from, to);
+                store.markOffscreen(from, to, width, height, marks);
+            });
+            return store.removeMarked(marks);
+        }
+
+        if (gathered.length < n) {
+            gathered = new CelestialBody[n * 2];
+        }
+        CelestialBody[] refs = gathered;
+        int k = 0;
+        for (CelestialBody body : bodies) {
+            refs[k++] = body;
+        }
+        forRange(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (step) refs[i].step();
+                marks[i] = refs[i].isOffscreen(width, height);
+            }
+        });
+        int[] index = {0};
+        int removed = bodies.removeIf(body -> {
+            if (!marks[index[0]++]) return false;
+            pool.release(body);
+            return true;
+        });
+        Arrays.fill(refs, 0, n, null);   // Don't keep culled bodies reachable
+        return removed;
+    }
+
+    /**
+     * Stop the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Halve the range until it is at most one chunk, then run it.
+     */
+    private static class Split extends RecursiveAction {
+        private final RangeTask task;
+        private final int from, to, chunk;
+
+        Split(RangeTask task, int from, int to, int chunk) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                task.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(task, from, mid, chunk), new Split(task, mid, to, chunk));
+        }
+    }
+}
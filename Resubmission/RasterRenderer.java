@@ -0,0 +1,125 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Rasterizes bodies straight into the {@code int[]} pixel buffer of a reused
+ * {@link BufferedImage} and blits it once per frame.
+ *
+ * Each radius gets a precomputed disk sprite (the covered column range of
+ * every row), so drawing a body is one {@code Arrays.fill} per row with its
+ * packed color; there is no per-body Graphics state to switch, which is
+ * what grouping by color would otherwise save.
+ *
+ * Bodies smaller than a pixel on screen are splatted instead: their color,
+ * scaled by the fraction of the pixel they cover, is added to the pixel
+ * (saturating per channel), so dense clusters of distant bodies build up
+ * brightness like a density map instead of flickering in and out.
+ */
+public class RasterRenderer implements Renderer {
+
+    /** Frame buffer, recreated when the panel size changes. */
+    private BufferedImage image;
+
+    /** Pixel data of {@link #image}, row-major. */
+    private int[] pixels;
+
+    /** Current frame size. */
+    private int width, height;
+
+    /** Disk sprites by radius: {@code sprites[r][2k]..sprites[r][2k+1]} is row k's column span. */
+    private int[][] sprites = new int[64][];
+
+    /** Background color of the panel. */
+    private final int background = Color.BLACK.getRGB();
+
+    public void render(Graphics2D g, FrameSnapshot frame, Camera camera, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (image == null || width != this.width || height != this.height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.width = width;
+            this.height = height;
+        }
+        Arrays.fill(pixels, background);
+        double zoom = camera.zoom, originX = camera.originX, originY = camera.originY;
+        for (int i = 0; i < frame.count; i++) {
+            double x = (frame.positionX[i] - originX) * zoom;
+            double y = (frame.positionY[i] - originY) * zoom;
+            double r = frame.radius[i] * zoom;
+            if (x + r < 0 || x - r > width || y + r < 0 || y - r > height) continue;   // Outside the panel, tested before narrowing to int
+
+            if (r < 1) {
+                splat(x, y, r, frame.color[i]);
+            } else {
+                fillDisk(x, y, (int) Math.round(r), frame.color[i]);
+            }
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * Add a sub-pixel body to the pixel containing its center, weighted by its screen area.
+     */
+    private void splat(double x, double y, double radius, int rgb) {
+        int px = (int) Math.floor(x), py = (int) Math.floor(y);
+        if (px < 0 || py < 0 || px >= width || py >= height) return;
+        double coverage = Math.min(1, Math.PI * radius * radius);
+        int index = py * width + px;
+        int old = pixels[index];
+        int red = Math.min(255, ((old >> 16) & 0xFF) + (int) (((rgb >> 16) & 0xFF) * coverage + 0.5));
+        int green = Math.min(255, ((old >> 8) & 0xFF) + (int) (((rgb >> 8) & 0xFF) * coverage + 0.5));
+        int blue = Math.min(255, (old & 0xFF) + (int) ((rgb & 0xFF) * coverage + 0.5));
+        pixels[index] = (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Fill a disk with the same bounding box {@link CelestialBody#draw} uses at zoom 1,
+     * clipped to the frame. The caller has already culled disks outside the frame, so
+     * the corner fits in an int.
+     */
+    private void fillDisk(double x, double y, int radius, int rgb) {
+        if (radius <= 0) return;
+        int left = (int) Math.round(x - radius);
+        int top = (int) Math.round(y - radius);
+        int diameter = radius * 2;
+        if (left >= width || top >= height || left + diameter <= 0 || top + diameter <= 0) return;
+
+        int[] spans = sprite(radius);
+        int firstRow = Math.max(0, -top);
+        int lastRow = Math.min(diameter, height - top);
+        for (int k = firstRow; k < lastRow; k++) {
+            int from = Math.max(0, left + spans[2 * k]);
+            int to = Math.min(width, left + spans[2 * k + 1]);
+            if (from < to) {
+                int row = (top + k) * width;
+                Arrays.fill(pixels, row + from, row + to, rgb);
+            }
+        }
+    }
+
+    /**
+     * Return (building on first use) the column spans of a disk of {@code radius}:
+     * pixel columns whose centers lie inside the circle, per row of the 2r × 2r box.
+     */
+    private int[] sprite(int radius) {
+        if (radius >= sprites.length) {
+            sprites = Arrays.copyOf(sprites, Math.max(radius + 1, sprites.length * 2));
+        }
+        int[] spans = sprites[radius];
+        if (spans == null) {
+            int diameter = radius * 2;
+            spans = new int[diameter * 2];
+            for (int k = 0; k < diameter; k++) {
+                double dy = k + 0.5 - radius;
+                double half = Math.sqrt(Math.max(0, (double) radius * radius - dy * dy));
+                spans[2 * k] = (int) Math.ceil(radius - half - 0.5);
+                spans[2 * k + 1] = (int) Math.floor(radius + half - 0.5) + 1;
+            }
+            sprites[radius] = spans;
+        }
+        return spans;
+    }
+}
@@ -0,0 +1,38 @@
+import java.awt.Graphics2D;
+
+/**
+ * Draws one frame of bodies onto the viewer panel through a {@link Camera}.
+ * Bodies entirely outside the panel are skipped, and bodies smaller than a
+ * pixel on screen are drawn as single pixels instead of disks.
+ */
+public interface Renderer {
+
+    /**
+     * Draw every body in a snapshot. The panel background has already been cleared.
+     *
+     * @param g       panel graphics
+     * @param frame   bodies to draw, in list order (world coordinates)
+     * @param camera  world-to-panel mapping
+     * @param width   panel width in pixels
+     * @param height  panel height in pixels
+     */
+    void render(Graphics2D g, FrameSnapshot frame, Camera camera, int width, int height);
+
+    /**
+     * Build the renderer named by the {@code renderer} config key.
+     *
+     * @param name "java2d" or "raster"
+     * @return a new renderer (java2d for unknown names)
+     */
+    static Renderer create(String name) {
+        switch (name) {
+            case "raster":
+                return new RasterRenderer();
+            case "java2d":
+                return new Java2DRenderer();
+            default:
+                System.out.println("Unknown renderer '" + name + "'. Defaulting to java2d.");
+                return new Java2DRenderer();
+        }
+    }
+}
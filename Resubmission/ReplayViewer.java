@@ -0,0 +1,215 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Swing viewer that plays back a trajectory file instead of simulating.
+ * Frames are decoded from the memory-mapped file on a "replay" thread and
+ * handed to the EDT through a {@link SnapshotExchange}, like the live viewer.
+ *
+ * At 1x one recorded tick is shown per timer_delay, the pace of the live
+ * run. Faster speeds advance several ticks per displayed frame; the ticks
+ * in between are skipped (decoded only when no keyframe lies between, jumped
+ * over otherwise). The timeline slider scrubs to any tick; the mouse zooms
+ * and pans as in the live viewer.
+ */
+public class ReplayViewer extends JPanel {
+
+    /** Playback speeds offered, in recorded ticks per displayed frame. */
+    private static final double[] SPEEDS = {0.25, 0.5, 1, 2, 4, 8, 16, 64, 256, 1024};
+
+    /** Index of 1x in {@link #SPEEDS}. */
+    private static final int NORMAL_SPEED = 2;
+
+    /** Source of the frames (replay thread only after construction). */
+    private final TrajectoryReader reader;
+
+    /** Draws the bodies each frame (renderer key). */
+    private final Renderer renderer;
+
+    /** World-to-panel mapping, moved by the mouse (EDT only). */
+    private final Camera camera = new Camera();
+
+    /** Hands snapshots from the replay thread to the EDT. */
+    private final SnapshotExchange frames = new SnapshotExchange();
+
+    /** Milliseconds between displayed frames (timer_delay). */
+    private final int frameDelay;
+
+    /** Drawing area. */
+    private final JPanel canvas = new JPanel() {
+        @Override
+        public void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            renderer.render((Graphics2D) g, frames.latest(), camera, getWidth(), getHeight());
+        }
+    };
+
+    /** Scrub bar over the recorded ticks. */
+    private final JSlider timeline;
+
+    /** Play / pause toggle. */
+    private final JButton playButton = new JButton("Pause");
+
+    /** Shows the displayed tick. */
+    private final JLabel status = new JLabel();
+
+    /** Whether the cursor advances. */
+    private volatile boolean playing = true;
+
+    /** Recorded ticks advanced per displayed frame. */
+    private volatile double speed = SPEEDS[NORMAL_SPEED];
+
+    /** Tick requested by the timeline, or -1; taken by the replay thread. */
+    private final AtomicLong seekRequest = new AtomicLong(-1);
+
+    /** Tick currently displayed (written by the replay thread). */
+    private volatile long shownTick = -1;
+
+    /** Set on the EDT while the timeline follows playback, so the change is not taken as a seek. */
+    private boolean followingPlayback;
+
+    /**
+     * Build the panel for an open trajectory.
+     * @param reader trajectory to play (owned by this viewer from now on)
+     * @param config window and world size, timer_delay and renderer
+     */
+    public ReplayViewer(TrajectoryReader reader, SimulationConfig config) {
+        super(new BorderLayout());
+        this.reader = reader;
+        this.renderer = Renderer.create(config.renderer);
+        this.frameDelay = Math.max(1, config.timerDelay);
+
+        canvas.setPreferredSize(new Dimension(config.windowWidth, config.windowHeight));
+        canvas.setBackground(Color.BLACK);
+        camera.fit(config.worldWidth, config.worldHeight, config.windowWidth, config.windowHeight);
+        CameraControls.install(camera, canvas, config.worldWidth, config.worldHeight);
+        add(canvas, BorderLayout.CENTER);
+
+        int first = (int) Math.min(Integer.MAX_VALUE, Math.max(0, reader.firstTick()));
+        int last = (int) Math.min(Integer.MAX_VALUE, Math.max(first, reader.lastTick()));
+        timeline = new JSlider(first, last, first);
+        timeline.addChangeListener(e -> {
+            if (!followingPlayback) seekRequest.set(timeline.getValue());
+        });
+
+        String[] speedNames = new String[SPEEDS.length];
+        for (int i = 0; i < SPEEDS.length; i++) {
+            speedNames[i] = SPEEDS[i] + "x";
+        }
+        JComboBox<String> speedBox = new JComboBox<>(speedNames);
+        speedBox.setSelectedIndex(NORMAL_SPEED);
+        speedBox.addActionListener(e -> speed = SPEEDS[speedBox.getSelectedIndex()]);
+
+        playButton.addActionListener(e -> {
+            if (!playing && shownTick >= reader.lastTick()) {
+                seekRequest.set(reader.firstTick());     // Replay from the start
+            }
+            setPlaying(!playing);
+        });
+
+        JPanel controls = new JPanel(new BorderLayout(8, 0));
+        JPanel buttons = new JPanel();
+        buttons.add(playButton);
+        buttons.add(speedBox);
+        controls.add(buttons, BorderLayout.WEST);
+        controls.add(timeline, BorderLayout.CENTER);
+        controls.add(status, BorderLayout.EAST);
+        add(controls, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Start the replay thread.
+     */
+    public void start() {
+        Thread playback = new Thread(this::play, "replay");
+        playback.setDaemon(true);
+        playback.start();
+    }
+
+    /**
+     * Replay thread: once per frame delay, move the cursor (by speed or to a
+     * requested tick), decode that tick if it is not already shown, and repaint.
+     */
+    private void play() {
+        TrajectoryFrame frame = new TrajectoryFrame();
+        long first = reader.firstTick(), last = reader.lastTick();
+        if (first < 0) return;
+        double cursor = first;
+        long period = frameDelay * 1_000_000L;
+        long next = System.nanoTime();
+        try {
+            while (true) {
+                long request = seekRequest.getAndSet(-1);
+                if (request >= 0) {
+                    cursor = Math.max(first, Math.min(last, request));
+                } else if (playing) {
+                    cursor = Math.min(last, cursor + speed);
+                }
+                long target = (long) cursor;
+                if (target != shownTick && reader.seek(target, frame)) {
+                    frames.backBuffer().capture(frame);
+                    frames.publish();
+                    shownTick = target;
+                    canvas.repaint();
+                    SwingUtilities.invokeLater(this::followPlayback);
+                }
+                if (playing && cursor >= last) {
+                    SwingUtilities.invokeLater(() -> setPlaying(false));
+                }
+
+                next += period;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                } else {
+                    next = System.nanoTime();                // Fell behind: do not try to catch up
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Replay stopped: " + e.getMessage());
+        } catch (InterruptedException ignored) { }
+    }
+
+    /**
+     * Move the timeline and status to the shown tick (EDT).
+     */
+    private void followPlayback() {
+        long tick = shownTick;
+        status.setText("tick " + tick + " / " + reader.lastTick());
+        if (!timeline.getValueIsAdjusting()) {
+            followingPlayback = true;
+            timeline.setValue((int) Math.min(Integer.MAX_VALUE, tick));
+            followingPlayback = false;
+        }
+    }
+
+    /**
+     * Start or pause playback and relabel the button (EDT).
+     */
+    private void setPlaying(boolean play) {
+        playing = play;
+        playButton.setText(play ? "Pause" : "Play");
+    }
+
+    /**
+     * Open a trajectory file in a new window and start playing it.
+     *
+     * @param config window size, timer_delay and renderer
+     * @param path   file written with trajectory_path
+     * @throws IOException if the file cannot be opened
+     */
+    public static void open(SimulationConfig config, String path) throws IOException {
+        TrajectoryReader reader = new TrajectoryReader(path);
+        SwingUtilities.invokeLater(() -> {
+            JFrame jf = new JFrame("Massive Motion replay - " + path);
+            ReplayViewer viewer = new ReplayViewer(reader, config);
+            jf.add(viewer);
+            jf.pack();
+            jf.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            jf.setVisible(true);
+            viewer.start();
+        });
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Classic fourth-order Runge–Kutta on (position, velocity). Most accurate
+ * per step over short spans but not symplectic, and it costs four force
+ * evaluations per step (the first is the one passed in).
+ */
+public class RungeKutta4Integrator implements Integrator {
+
+    /** Positions of the current stage. */
+    private double[] stageX = new double[0], stageY = new double[0];
+
+    /** Accelerations of the current stage. */
+    private double[] stageAX = new double[0], stageAY = new double[0];
+
+    /** Velocity of the previous stage (the position derivative). */
+    private double[] stageVX = new double[0], stageVY = new double[0];
+
+    /** Weighted sums of the stage derivatives. */
+    private double[] sumX = new double[0], sumY = new double[0];
+    private double[] sumVX = new double[0], sumVY = new double[0];
+
+    public boolean step(double[] x, double[] y, double[] vx, double[] vy, int n, double dt,
+                        double[] ax, double[] ay, Field field) {
+        ensureCapacity(n);
+        double half = dt * 0.5;
+
+        // Stage 1: derivative at the start
+        for (int i = 0; i < n; i++) {
+            sumX[i] = vx[i];
+            sumY[i] = vy[i];
+            sumVX[i] = ax[i];
+            sumVY[i] = ay[i];
+            stageX[i] = x[i] + vx[i] * half;
+            stageY[i] = y[i] + vy[i] * half;
+            stageVX[i] = vx[i] + ax[i] * half;
+            stageVY[i] = vy[i] + ay[i] * half;
+        }
+
+        // Stages 2 and 3: derivatives at the two midpoint estimates
+        for (int stage = 2; stage <= 3; stage++) {
+            field.evaluate(stageX, stageY, stageAX, stageAY);
+            double reach = stage == 2 ? half : dt;
+            for (int i = 0; i < n; i++) {
+                double kx = stageVX[i], ky = stageVY[i];
+                sumX[i] += 2 * kx;
+                sumY[i] += 2 * ky;
+                sumVX[i] += 2 * stageAX[i];
+                sumVY[i] += 2 * stageAY[i];
+                stageX[i] = x[i] + kx * reach;
+                stageY[i] = y[i] + ky * reach;
+                stageVX[i] = vx[i] + stageAX[i] * reach;
+                stageVY[i] = vy[i] + stageAY[i] * reach;
+            }
+        }
+
+        // Stage 4: derivative at the end estimate, then combine
+        field.evaluate(stageX, stageY, stageAX, stageAY);
+        double sixth = dt / 6;
+        for (int i = 0; i < n; i++) {
+            x[i] += (sumX[i] + stageVX[i]) * sixth;
+            y[i] += (sumY[i] + stageVY[i]) * sixth;
+            vx[i] += (sumVX[i] + stageAX[i]) * sixth;
+            vy[i] += (sumVY[i] + stageAY[i]) * sixth;
+        }
+        return false;
+    }
+
+    private void ensureCapacity(int n) {
+        if (stageX.length >= n) return;
+        int capacity = n * 2;
+        stageX = new double[capacity];
+        stageY = new double[capacity];
+        stageAX = new double[capacity];
+        stageAY = new double[capacity];
+        stageVX = new double[capacity];
+        stageVY = new double[capacity];
+        sumX = new double[capacity];
+        sumY = new double[capacity];
+        sumVX = new double[capacity];
+        sumVY = new double[capacity];
+    }
+}
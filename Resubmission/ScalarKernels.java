@@ -0,0 +1,48 @@
+/**
+ * Plain loops for {@link Kernels}; the fallback whenever the Vector API is not
+ * available. Each column of the position update gets its own loop, which the
+ * JIT may still auto-vectorize.
+ */
+public class ScalarKernels implements Kernels {
+
+    public void step(double[] x, double[] y, double[] vx, double[] vy, int from, int to) {
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i];
+        }
+        for (int i = from; i < to; i++) {
+            y[i] += vy[i];
+        }
+    }
+
+    public void markOffscreen(double[] x, double[] y, int[] radius, int from, int to,
+                              int width, int height, boolean[] marks) {
+        for (int i = from; i < to; i++) {
+            double xi = x[i], yi = y[i];
+            int r = radius[i];
+            marks[i] = (xi + r < 0) || (xi - r > width) || (yi + r < 0) || (yi - r > height);
+        }
+    }
+
+    public void accelerations(double[] x, double[] y, double[] mass, int n, double g, double softening2,
+                              int from, int to, double[] ax, double[] ay) {
+        for (int i = from; i < to; i++) {
+            double xi = x[i], yi = y[i];
+            double sumX = 0, sumY = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double dx = x[j] - xi;
+                double dy = y[j] - yi;
+                double d2 = dx * dx + dy * dy + softening2;
+                double s = g * mass[j] / (d2 * Math.sqrt(d2));
+                sumX += s * dx;
+                sumY += s * dy;
+            }
+            ax[i] = sumX;
+            ay[i] = sumY;
+        }
+    }
+
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Semi-implicit (symplectic) Euler: kick, then move with the new velocity.
+ * First order but keeps orbits bounded; the original tick and the default.
+ * One force evaluation per step.
+ */
+public class SemiImplicitEulerIntegrator implements Integrator {
+
+    public boolean step(double[] x, double[] y, double[] vx, double[] vy, int n, double dt,
+                        double[] ax, double[] ay, Field field) {
+        for (int i = 0; i < n; i++) {
+            vx[i] += ax[i] * dt;
+            vy[i] += ay[i] * dt;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+        return false;
+    }
+}
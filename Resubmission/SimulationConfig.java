@@ -0,0 +1,404 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Values read from MassiveMotion.txt. Every field starts at the default used
+ * when its key is missing or unparsable; unparsable values are reported.
+ */
+public class SimulationConfig implements Cloneable {
+
+    /** Timer delay in milliseconds (viewer tick period). */
+    public int timerDelay = 75;
+
+    /** Name of the list implementation ("list" key, lower-cased). */
+    public String list = "arraylist";
+
+    /** Scratch file the offheap list maps its records from, or empty for direct memory. */
+    public String offheapFile = "";
+
+    /** Column kernels: "auto", "vector" or "scalar" ("simd" key). */
+    public String simd = "auto";
+
+    /** Number of worker threads for the per-body phases. */
+    public int threads = 1;
+
+    /** Window width in pixels. */
+    public int windowWidth = 1024;
+
+    /** Window height in pixels. */
+    public int windowHeight = 768;
+
+    /** Width of the simulated region in world pixels (defaults to the window width). */
+    public int worldWidth = 1024;
+
+    /** Height of the simulated region in world pixels (defaults to the window height). */
+    public int worldHeight = 768;
+
+    /** Seed of the spawn RNG streams; a fresh clock-based value unless the seed key is set. */
+    public long seed = new SplitMix64().nextLong();
+
+    /** How gen_x / gen_y are read: "bernoulli" (probabilities) or "poisson" (means, may exceed 1). */
+    public String spawn = "bernoulli";
+
+    /** Expected spawns per tick on top or bottom edges. */
+    public double genX = 0.06;
+
+    /** Expected spawns per tick on left or right edges. */
+    public double genY = 0.06;
+
+    /** Radius of newly spawned white stars. */
+    public int bodySize = 10;
+
+    /** Mass of spawned white stars. */
+    public double bodyMass = 1E21;
+
+    /** Maximum absolute component speed for spawned stars. */
+    public int bodyVelocity = 3;
+
+    /** Sun center x coordinate (defaults to the world center). */
+    public int starX = -1;
+
+    /** Sun center y coordinate (defaults to the world center). */
+    public int starY = -1;
+
+    /** Radius of the center orange sun. */
+    public int starSize = 30;
+
+    /** Mass of the center sun. */
+    public double starMass = 2E29;
+
+    /** Sun velocity along x. */
+    public double starVX = 0;
+
+    /** Sun velocity along y. */
+    public double starVY = 0;
+
+    /** Gravity solver: off, barneshut or direct. */
+    public String gravity = "off";
+
+    /** Gravitational constant in pixel/tick units. */
+    public double gravityConstant = 1E-27;
+
+    /** Gravity softening length in pixels. */
+    public double gravitySoftening = 5;
+
+    /** Barnes–Hut opening angle. */
+    public double gravityTheta = 0.5;
+
+    /** Gravity integrator: euler, semi_implicit, verlet (leapfrog) or rk4. */
+    public String integrator = "semi_implicit";
+
+    /** Integrator substeps per tick (the minimum when adaptive). */
+    public int integratorSubsteps = 1;
+
+    /** Whether to choose the substep count every tick from the largest acceleration. */
+    public boolean integratorAdaptive = false;
+
+    /** Adaptive accuracy parameter: substep &lt;= eta * sqrt(softening / max acceleration). */
+    public double integratorEta = 0.1;
+
+    /** Upper bound on adaptive substeps per tick. */
+    public int integratorMaxSubsteps = 64;
+
+    /** Viewer renderer: java2d or raster. */
+    public String renderer = "java2d";
+
+    /** Collision handling: off or merge. */
+    public String collisions = "off";
+
+    /** Ticks between metrics reports; 0 turns reporting off. */
+    public int metricsInterval = 0;
+
+    /** CSV file the metrics reports are appended to, or empty for none. */
+    public String metricsCsv = "";
+
+    /** Whether to register the metrics MBean with the platform MBean server. */
+    public boolean metricsJmx = false;
+
+    /** Ticks between checkpoints; 0 turns checkpointing off. */
+    public int checkpointInterval = 0;
+
+    /** File the checkpoints are written to. */
+    public String checkpointPath = "MassiveMotion.ckpt";
+
+    /** Checkpoint to resume from at startup, or empty to start fresh. */
+    public String restore = "";
+
+    /** Trajectory file recording every tick, or empty for none. */
+    public String trajectoryPath = "";
+
+    /** Quantization step of recorded positions and velocities. */
+    public double trajectoryQuantum = 0.001;
+
+    /** Ticks between trajectory keyframes (the seek granularity). */
+    public int trajectoryKeyframe = 100;
+
+    /** Frames that may wait for the trajectory writer before ticks are dropped. */
+    public int trajectoryBuffer = 64;
+
+    /** Whether to watch the config file and apply edits while running. */
+    public boolean watchConfig = true;
+
+    /**
+     * Read a config file; a missing or unreadable file is reported and leaves
+     * every default in place.
+     *
+     * @param path path to the properties file
+     * @return parsed config
+     */
+    public static SimulationConfig load(String path) {
+        try {
+            return from(read(path));
+        } catch (IOException e) {
+            System.out.println("Could not read '" + path + "' (" + e.getMessage() + "). Using defaults.");
+            return new SimulationConfig();
+        }
+    }
+
+    /**
+     * Load the raw properties of a config file.
+     *
+     * @param path path to the properties file
+     * @return the loaded properties
+     * @throws IOException if the file cannot be read or has a malformed escape
+     */
+    public static Properties read(String path) throws IOException {
+        Properties p = new Properties();
+        try (FileInputStream fis = new FileInputStream(path)) {
+            p.load(fis);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return p;
+    }
+
+    /**
+     * Build a config from already loaded properties.
+     *
+     * @param p the loaded properties
+     * @return parsed config
+     */
+    public static SimulationConfig from(Properties p) {
+        SimulationConfig c = new SimulationConfig();
+        c.list         = p.getProperty("list", c.list).trim().toLowerCase();
+        c.offheapFile  = p.getProperty("offheap_file", c.offheapFile).trim();
+        c.simd         = p.getProperty("simd", c.simd).trim().toLowerCase();
+        c.threads      = getInt(p, "threads", c.threads);
+        c.timerDelay   = getInt(p, "timer_delay", c.timerDelay);
+        c.windowWidth  = getInt(p, "window_size_x", c.windowWidth);
+        c.windowHeight = getInt(p, "window_size_y", c.windowHeight);
+        c.worldWidth   = getInt(p, "world_size_x", c.windowWidth);
+        c.worldHeight  = getInt(p, "world_size_y", c.windowHeight);
+
+        c.seed         = getLong(p, "seed", c.seed);
+        c.spawn        = p.getProperty("spawn", c.spawn).trim().toLowerCase();
+        c.genX         = getDouble(p, "gen_x", c.genX);
+        c.genY         = getDouble(p, "gen_y", c.genY);
+        c.bodySize     = getInt(p, "body_size", c.bodySize);
+        c.bodyMass     = getDouble(p, "body_mass", c.bodyMass);
+        c.bodyVelocity = getInt(p, "body_velocity", c.bodyVelocity);
+
+        c.starSize     = getInt(p, "star_size", c.starSize);
+        c.starMass     = getDouble(p, "star_mass", c.starMass);
+        c.starVX       = getDouble(p, "star_velocity_x", c.starVX);
+        c.starVY       = getDouble(p, "star_velocity_y", c.starVY);
+        c.starX        = getInt(p, "star_position_x", c.worldWidth / 2);
+        c.starY        = getInt(p, "star_position_y", c.worldHeight / 2);
+
+        c.gravity          = p.getProperty("gravity", c.gravity).trim().toLowerCase();
+        c.gravityConstant  = getDouble(p, "gravity_constant", c.gravityConstant);
+        c.gravitySoftening = getDouble(p, "gravity_softening", c.gravitySoftening);
+        c.gravityTheta     = getDouble(p, "gravity_theta", c.gravityTheta);
+
+        c.integrator            = p.getProperty("integrator", c.integrator).trim().toLowerCase();
+        c.integratorSubsteps    = getInt(p, "integrator_substeps", c.integratorSubsteps);
+        c.integratorAdaptive    = getBoolean(p, "integrator_adaptive", c.integratorAdaptive);
+        c.integratorEta         = getDouble(p, "integrator_eta", c.integratorEta);
+        c.integratorMaxSubsteps = getInt(p, "integrator_max_substeps", c.integratorMaxSubsteps);
+
+        c.collisions   = p.getProperty("collisions", c.collisions).trim().toLowerCase();
+        c.renderer     = p.getProperty("renderer", c.renderer).trim().toLowerCase();
+
+        c.metricsInterval = getInt(p, "metrics_interval", c.metricsInterval);
+        c.metricsCsv      = p.getProperty("metrics_csv", c.metricsCsv).trim();
+        c.metricsJmx      = getBoolean(p, "metrics_jmx", c.metricsJmx);
+
+        c.checkpointInterval = getInt(p, "checkpoint_interval", c.checkpointInterval);
+        c.checkpointPath     = p.getProperty("checkpoint_path", c.checkpointPath).trim();
+        c.restore            = p.getProperty("restore", c.restore).trim();
+
+        c.trajectoryPath     = p.getProperty("trajectory_path", c.trajectoryPath).trim();
+        c.trajectoryQuantum  = getDouble(p, "trajectory_quantum", c.trajectoryQuantum);
+        c.trajectoryKeyframe = getInt(p, "trajectory_keyframe", c.trajectoryKeyframe);
+        c.trajectoryBuffer   = getInt(p, "trajectory_buffer", c.trajectoryBuffer);
+
+        c.watchConfig = getBoolean(p, "watch_config", c.watchConfig);
+        return c;
+    }
+
+    /**
+     * Copy of these values with every setting that is only read at startup
+     * (timer, window, world, seed, sun, restore and the metrics, checkpoint
+     * and trajectory outputs) taken from {@code running}, so a running engine
+     * never sees them change.
+     *
+     * @param running settings the engine was started with
+     * @return the merged copy
+     */
+    public SimulationConfig withStartupSettings(SimulationConfig running) {
+        SimulationConfig c = copy();
+        c.timerDelay   = running.timerDelay;
+        c.renderer     = running.renderer;
+        c.windowWidth  = running.windowWidth;
+        c.windowHeight = running.windowHeight;
+        c.worldWidth   = running.worldWidth;
+        c.worldHeight  = running.worldHeight;
+        c.seed         = running.seed;
+
+        c.starX    = running.starX;
+        c.starY    = running.starY;
+        c.starSize = running.starSize;
+        c.starMass = running.starMass;
+        c.starVX   = running.starVX;
+        c.starVY   = running.starVY;
+        c.restore  = running.restore;
+
+        c.metricsInterval    = running.metricsInterval;
+        c.metricsCsv         = running.metricsCsv;
+        c.metricsJmx         = running.metricsJmx;
+        c.checkpointInterval = running.checkpointInterval;
+        c.checkpointPath     = running.checkpointPath;
+        c.trajectoryPath     = running.trajectoryPath;
+        c.trajectoryQuantum  = running.trajectoryQuantum;
+        c.trajectoryKeyframe = running.trajectoryKeyframe;
+        c.trajectoryBuffer   = running.trajectoryBuffer;
+        c.watchConfig        = running.watchConfig;
+        return c;
+    }
+
+    /**
+     * Copy of these values with every live setting the engine cannot run with
+     * (threads or body_velocity below 1, gen_x / gen_y negative or not finite)
+     * reported and taken from {@code fallback}. body_velocity = 0 would never
+     * draw a non-zero spawn velocity, so it would hang the tick.
+     *
+     * @param fallback values to use instead (the defaults at startup, the running ones on reload)
+     * @return the checked copy
+     */
+    public SimulationConfig validated(SimulationConfig fallback) {
+        SimulationConfig c = copy();
+        if (c.threads < 1) {
+            reportOutOfRange("threads", c.threads, "at least 1", c.threads = fallback.threads);
+        }
+        if (c.bodyVelocity < 1) {
+            reportOutOfRange("body_velocity", c.bodyVelocity, "at least 1", c.bodyVelocity = fallback.bodyVelocity);
+        }
+        if (!(c.genX >= 0 && c.genX < Double.POSITIVE_INFINITY)) {
+            reportOutOfRange("gen_x", c.genX, "finite and at least 0", c.genX = fallback.genX);
+        }
+        if (!(c.genY >= 0 && c.genY < Double.POSITIVE_INFINITY)) {
+            reportOutOfRange("gen_y", c.genY, "finite and at least 0", c.genY = fallback.genY);
+        }
+        return c;
+    }
+
+    /**
+     * @return an independent copy of these values
+     */
+    public SimulationConfig copy() {
+        try {
+            return (SimulationConfig) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Parse an integer property or return the provided default; a value that
+     * is present but not a number is reported.
+     * @param p    the loaded properties
+     * @param key  the property key
+     * @param def  the default value
+     * @return the parsed integer or the default
+     */
+    private static int getInt(Properties p, String key, int def){
+        String value = p.getProperty(key, "").trim();
+        if (value.isEmpty()) return def;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e){
+            reportBadValue(key, value, def);
+            return def;
+        }
+    }
+
+    /**
+     * Parse a long property or return the provided default; a value that
+     * is present but not a number is reported.
+     * @param p    the loaded properties
+     * @param key  the property key
+     * @param def  the default value
+     * @return the parsed long or the default
+     */
+    private static long getLong(Properties p, String key, long def){
+        String value = p.getProperty(key, "").trim();
+        if (value.isEmpty()) return def;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e){
+            reportBadValue(key, value, def);
+            return def;
+        }
+    }
+
+    /**
+     * Parse a double property or return the provided default; a value that
+     * is present but not a number is reported.
+     * @param p    the loaded properties
+     * @param key  the property key
+     * @param def  the default value
+     * @return the parsed double or the default
+     */
+    private static double getDouble(Properties p, String key, double def){
+        String value = p.getProperty(key, "").trim();
+        if (value.isEmpty()) return def;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e){
+            reportBadValue(key, value, def);
+            return def;
+        }
+    }
+
+    /**
+     * Parse a true/false property or return the provided default; any other
+     * value is reported.
+     * @param p    the loaded properties
+     * @param key  the property key
+     * @param def  the default value
+     * @return the parsed boolean or the default
+     */
+    private static boolean getBoolean(Properties p, String key, boolean def){
+        String value = p.getProperty(key, "").trim();
+        if (value.isEmpty()) return def;
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        reportBadValue(key, value, def);
+        return def;
+    }
+
+    /**
+     * Print that {@code key} is out of range and which value is kept instead.
+     */
+    private static void reportOutOfRange(String key, Object value, String range, Object kept) {
+        System.out.println(key + " must be " + range + ", not " + value + ". Keeping " + kept + ".");
+    }
+
+    /**
+     * Print that {@code key} could not be parsed and which value is used instead.
+     */
+    private static void reportBadValue(String key, String value, Object def) {
+        System.out.println("Could not parse " + key + " '" + value + "'. Using " + def + ".");
+    }
+}
@@ -0,0 +1,622 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * The simulation without any UI: owns the body list, the RNG, edge spawning
+ * and the tick. The Swing panel is one optional driver; {@link #run} is the
+ * other, stepping at a fixed rate or as fast as possible.
+ */
+public class SimulationEngine {
+
+    /** Parsed configuration; replaced by {@link #reconfigure} when the file is edited. */
+    private SimulationConfig config;
+
+    /** Spawn stream for the top/bottom edges, split from the seed (state is saved in checkpoints). */
+    private final SplitMix64 xEdgeRng;
+
+    /** Spawn stream for the left/right edges, independent of {@link #xEdgeRng}. */
+    private final SplitMix64 yEdgeRng;
+
+    /** Container of bodies constructed from the list choice. */
+    private List<CelestialBody> bodies;
+
+    /** Column kernels for the record stores and the direct solver. */
+    private Kernels kernels;
+
+    /** Moves the bodies under gravity, or null when gravity is off (bodies then just step). */
+    private Gravity gravity;
+
+    /** Fork/join workers for the step, cull and force phases, or null when threads = 1. */
+    private ParallelTick parallel;
+
+    /** Merge pass for overlapping bodies, or null when collisions are off. */
+    private Collisions collisions;
+
+    /** Recycles culled bodies into new spawns. */
+    private final BodyPool pool = new BodyPool();
+
+    /** Number of ticks completed so far. */
+    private long tick;
+
+    /** Id given to the next spawned body (the initial sun is 0). */
+    private long nextId = 1;
+
+    /** Whether gen_x / gen_y are Poisson means (spawn = poisson) rather than per-tick probabilities. */
+    private boolean poissonSpawns;
+
+    /** Bodies spawned this tick, waiting for the batch append. */
+    private CelestialBody[] spawned = new CelestialBody[16];
+
+    /** Number of staged bodies in {@link #spawned}. */
+    private int spawnedCount;
+
+    /** Callbacks run at the end of every tick, on the ticking thread. */
+    private final List<TickListener> listeners = new ArrayList<>();
+
+    /** Phase timings and body counters, always collected. */
+    private final TickMetrics metrics = new TickMetrics();
+
+    /** Periodic metrics output, or null when metrics_interval = 0. */
+    private final MetricsReporter reporter;
+
+    /** Trajectory output, or null when trajectory_path is empty. */
+    private final TrajectoryRecorder trajectory;
+
+    /** Heap bytes allocated by the thread running the most recent tick. */
+    private long lastTickAllocatedBytes;
+
+    /** Fused per-body tick: move the body, then report whether it left the world. */
+    private final Predicate<CelestialBody> stepAndCull;
+
+    /** Cull-only test used when gravity has already moved the bodies. */
+    private final Predicate<CelestialBody> cull;
+
+    /**
+     * Build the list, solvers and workers from {@code config} and add the sun.
+     *
+     * @param config parsed configuration
+     */
+    public SimulationEngine(SimulationConfig config) {
+        /** Out-of-range spawn and thread settings would hang or crash the tick; use the defaults instead. */
+        config = config.validated(new SimulationConfig());
+        this.config = config;
+        this.bodies = newList(config);
+
+        /** One stream per spawning edge pair, so neither depends on how often the other draws. */
+        SplitMix64 root = new SplitMix64(config.seed);
+        xEdgeRng = root.split();
+        yEdgeRng = root.split();
+
+        configure(null);
+
+        /** Report timings every metrics_interval ticks (to stdout, metrics_csv and JMX). */
+        if (config.metricsInterval > 0) {
+            reporter = new MetricsReporter(metrics, config.metricsInterval, config.metricsCsv, config.metricsJmx);
+            addTickListener(reporter);
+        } else {
+            reporter = null;
+        }
+
+        int width = config.worldWidth, height = config.worldHeight;
+        stepAndCull = body -> {
+            body.step();
+            if (!body.isOffscreen(width, height)) return false;
+            pool.release(body);
+            return true;
+        };
+        cull = body -> {
+            if (!body.isOffscreen(width, height)) return false;
+            pool.release(body);
+            return true;
+        };
+
+        /** Add the central sun to the bodies list. */
+        bodies.add(new CelestialBody(config.starX, config.starY, config.starVX, config.starVY,
+                config.starSize, config.starMass, Color.ORANGE, true));
+
+        /** Resume from a checkpoint when restore names one; a bad file leaves the fresh state. */
+        if (!config.restore.isEmpty()) {
+            try {
+                Checkpoint.restore(this, config.restore);
+                System.out.println("Restored " + bodies.size() + " bodies at tick " + tick + " from " + config.restore);
+            } catch (IOException e) {
+                System.out.println("Could not restore '" + config.restore + "': " + e.getMessage() + ". Starting fresh.");
+            }
+        }
+
+        /** Save a checkpoint every checkpoint_interval ticks. */
+        if (config.checkpointInterval > 0) {
+            addTickListener(new Checkpoint(config.checkpointPath, config.checkpointInterval));
+        }
+
+        /** Stream every tick to trajectory_path. */
+        TrajectoryRecorder recorder = null;
+        if (!config.trajectoryPath.isEmpty()) {
+            try {
+                recorder = new TrajectoryRecorder(config.trajectoryPath, config.trajectoryQuantum,
+                        config.trajectoryKeyframe, config.trajectoryBuffer);
+                addTickListener(recorder);
+            } catch (IOException e) {
+                System.out.println("Could not open trajectory '" + config.trajectoryPath + "': " + e.getMessage());
+            }
+        }
+        trajectory = recorder;
+    }
+
+    /**
+     * Create the list implementation named by the {@code list} config key.
+     *
+     * @param listChoice lower-cased list name
+     * @return an empty list
+     */
+    public static List<CelestialBody> createList(String listChoice) {
+        switch (listChoice) {
+            case "arraylist":
+                return new ArrayList<>();
+            case "arraydequelist":
+                return new ArrayDequeList<>();
+            case "linkedlist":
+                return new LinkedList<>();
+            case "dummyheadlinkedlist":
+                return new DummyHeadLinkedList<>();
+            case "doublylinkedlist":
+                return new DoublyLinkedList<>();
+            case "unrolledlinkedlist":
+                return new UnrolledLinkedList<>();
+            case "soa":
+                return new BodyStore();
+            case "offheap":
+                return new OffHeapBodyStore();
+            default:
+                System.out.println("Unknown list '" + listChoice + "'. Defaulting to ArrayList.");
+                return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Empty list for the {@code list} key, mapping an offheap list from offheap_file when one is set.
+     */
+    private static List<CelestialBody> newList(SimulationConfig config) {
+        return config.list.equals("offheap") && !config.offheapFile.isEmpty()
+                ? openOffHeap(config.offheapFile) : createList(config.list);
+    }
+
+    /**
+     * Off-heap store mapped from {@code path}, or in direct memory if the file cannot be opened.
+     */
+    private static List<CelestialBody> openOffHeap(String path) {
+        try {
+            return new OffHeapBodyStore(path);
+        } catch (IOException e) {
+            System.out.println("Could not map '" + path + "' (" + e.getMessage() + "). Keeping bodies in direct memory.");
+            return new OffHeapBodyStore();
+        }
+    }
+
+    /**
+     * Build the parts that follow the live settings: spawn mode, kernels,
+     * workers, gravity and collisions. The kernels and the worker pool are
+     * only replaced when their key differs from {@code previous}; the rest is
+     * cheap and always rebuilt.
+     *
+     * @param previous settings the current parts were built from, or null on the first call
+     */
+    private void configure(SimulationConfig previous) {
+        /** gen_x / gen_y are per-tick probabilities (bernoulli) or expected spawns per tick (poisson). */
+        switch (config.spawn) {
+            case "bernoulli":
+                poissonSpawns = false;
+                break;
+            case "poisson":
+                poissonSpawns = true;
+                break;
+            default:
+                System.out.println("Unknown spawn '" + config.spawn + "'. Defaulting to bernoulli.");
+                poissonSpawns = false;
+        }
+
+        /** Run the column loops with SIMD kernels when the Vector API is available (simd key). */
+        if (previous == null || !config.simd.equals(previous.simd)) {
+            kernels = Kernels.create(config.simd);
+        }
+        if (bodies instanceof BodyStore) {
+            ((BodyStore) bodies).setKernels(kernels);
+        }
+
+        /** Split the per-body work across this many threads (1 keeps everything on the caller). */
+        if (previous == null || config.threads != previous.threads) {
+            if (parallel != null) {
+                parallel.shutdown();
+            }
+            parallel = config.threads > 1 ? new ParallelTick(config.threads) : null;
+        }
+
+        /** Choose the gravity solver: off, barneshut, or direct (all-pairs reference). */
+        gravity = Gravity.create(config.gravity, config.gravityConstant,
+                config.gravitySoftening, config.gravityTheta, kernels);
+
+        /** Integrate gravity with the chosen scheme, in fixed or adaptive substeps. */
+        if (gravity != null) {
+            gravity.setIntegrator(Integrator.create(config.integrator), config.integratorSubsteps);
+            if (config.integratorAdaptive) {
+                gravity.setAdaptive(config.integratorEta, config.gravitySoftening, config.integratorMaxSubsteps);
+            }
+            if (parallel != null) {
+                gravity.setParallel(parallel);
+            }
+        }
+
+        /** Overlapping bodies merge when collisions = merge. */
+        switch (config.collisions) {
+            case "merge":
+                collisions = new Collisions();
+                break;
+            case "off":
+                collisions = null;
+                break;
+            default:
+                System.out.println("Unknown collisions '" + config.collisions + "'. Defaulting to off.");
+                collisions = null;
+        }
+    }
+
+    /**
+     * Switch to edited settings between two ticks; call it from the ticking
+     * thread (a {@link TickListener} does). Spawn rates and body settings,
+     * gravity, integrator, collisions, threads and kernels apply from the next
+     * tick. A different list (or offheap_file) moves every body into a new
+     * list of that kind, in order. Settings only read at startup, such as the
+     * world size, seed and output files, keep their running values whatever
+     * {@code next} says (see {@link SimulationConfig#withStartupSettings}), and
+     * a live value out of range is reported and keeps its running value.
+     *
+     * @param next the new settings (not modified)
+     */
+    public void reconfigure(SimulationConfig next) {
+        SimulationConfig previous = config;
+        config = next.withStartupSettings(previous).validated(previous);
+        if (!config.list.equals(previous.list)
+                || (config.list.equals("offheap") && !config.offheapFile.equals(previous.offheapFile))) {
+            migrateBodies();
+        }
+        configure(previous);
+    }
+
+    /**
+     * Copy every body, in order, into a new list built from the current
+     * {@code list} key and release the old list. The record stores hand out
+     * reused views, so bodies leaving one get fresh objects from the pool, and
+     * objects copied into one go back to the pool.
+     */
+    private void migrateBodies() {
+        List<CelestialBody> source = bodies;
+        List<CelestialBody> target = newList(config);
+        boolean fromRecords = source instanceof BodyRecords;
+        boolean toRecords = target instanceof BodyRecords;
+        for (CelestialBody body : source) {
+            if (fromRecords && !toRecords) {
+                CelestialBody copy = pool.acquire();
+                copy.set(body.positionX, body.positionY, body.velocityX, body.velocityY,
+                        body.radius, body.mass, body.color, body.isStar);
+                copy.id = body.id;
+                target.add(copy);
+            } else {
+                target.add(body);
+                if (toRecords && !fromRecords) {
+                    pool.release(body);
+                }
+            }
+        }
+        bodies = target;
+        if (source instanceof OffHeapBodyStore) {
+            try {
+                ((OffHeapBodyStore) source).close();
+            } catch (IOException e) {
+                System.out.println("Could not release off-heap bodies: " + e.getMessage());
+            }
+        }
+        System.out.println("Moved " + target.size() + " bodies to the " + config.list + " list.");
+    }
+
+    /**
+     * One simulation tick: move bodies (integrating gravity if on), cull offscreen, merge overlaps, maybe spawn new ones.
+     */
+    public void tick() {
+        long allocatedBefore = AllocationCounter.currentThreadBytes();
+        int width = config.worldWidth, height = config.worldHeight;
+        long start = System.nanoTime(), mark = start, now;
+
+        /** Under gravity the integrator moves the bodies, so only culling is left; otherwise step and cull. */
+        if (gravity != null) {
+            gravity.advance(bodies);
+            now = System.nanoTime();
+            metrics.record(TickMetrics.Phase.FORCE, now - mark);
+            mark = now;
+            if (parallel != null) {
+                metrics.addCulled(parallel.cull(bodies, width, height, pool));
+            } else if (bodies instanceof BodyRecords) {
+                metrics.addCulled(((BodyRecords) bodies).cullOffscreen(width, height));
+            } else {
+                metrics.addCulled(bodies.removeIf(cull));
+            }
+            now = System.nanoTime();
+            metrics.record(TickMetrics.Phase.CULL, now - mark);
+            mark = now;
+        } else {
+            /** Move each body and drop the ones now offscreen; only the record stores time the two apart. */
+            boolean fused = parallel != null || !(bodies instanceof BodyRecords);
+            if (parallel != null) {
+                metrics.addCulled(parallel.stepAndCull(bodies, width, height, pool));
+            } else if (!fused) {
+                BodyRecords store = (BodyRecords) bodies;
+                store.step();
+                now = System.nanoTime();
+                metrics.record(TickMetrics.Phase.STEP, now - mark);
+                mark = now;
+                metrics.addCulled(store.cullOffscreen(width, height));
+            } else {
+                metrics.addCulled(bodies.removeIf(stepAndCull));
+            }
+            now = System.nanoTime();
+            metrics.record(fused ? TickMetrics.Phase.STEP : TickMetrics.Phase.CULL, now - mark);
+            mark = now;
+        }
+
+        /** Merge bodies that now overlap. */
+        if (collisions != null) {
+            metrics.addMerged(collisions.apply(bodies));
+            now = System.nanoTime();
+            metrics.record(TickMetrics.Phase.COLLIDE, now - mark);
+            mark = now;
+        }
+
+        /** Spawn this tick's stars from the edges and append them in one batch. */
+        spawnXEdge(spawnCount(xEdgeRng, config.genX));
+        spawnYEdge(spawnCount(yEdgeRng, config.genY));
+        appendSpawned();
+        now = System.nanoTime();
+        metrics.record(TickMetrics.Phase.SPAWN, now - mark);
+        metrics.record(TickMetrics.Phase.TICK, now - start);
+
+        tick++;
+        lastTickAllocatedBytes = AllocationCounter.currentThreadBytes() - allocatedBefore;
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).afterTick(this);
+        }
+    }
+
+    /**
+     * Register a callback run after every tick on the thread that ticks.
+     * Call before the engine starts running.
+     *
+     * @param listener callback to add
+     */
+    public void addTickListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Run {@code ticks} ticks on the calling thread with a fixed timestep.
+     * Each tick is scheduled at {@code start + k * period}; a late tick runs
+     * immediately, so the average rate holds even if single ticks overrun.
+     *
+     * @param ticks          number of ticks to run
+     * @param ticksPerSecond target rate, or {@code <= 0} to run as fast as possible
+     * @throws InterruptedException if the thread is interrupted (checked before every tick and while waiting)
+     */
+    public void run(long ticks, double ticksPerSecond) throws InterruptedException {
+        long period = ticksPerSecond > 0 ? (long) (1_000_000_000L / ticksPerSecond) : 0;
+        long next = System.nanoTime();
+        for (long k = 0; k < ticks; k++) {
+            if (Thread.interrupted()) {         // Also caught when running flat out, with no sleep to interrupt
+                throw new InterruptedException();
+            }
+            if (period > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+                next += period;
+            }
+            tick();
+        }
+    }
+
+    /**
+     * Stop worker threads, if any, and finish the metrics CSV and trajectory files.
+     */
+    public void shutdown() {
+        if (parallel != null) {
+            parallel.shutdown();
+        }
+        if (reporter != null) {
+            reporter.close();
+        }
+        if (trajectory != null) {
+            try {
+                trajectory.close();
+            } catch (IOException e) {
+                System.out.println("Could not finish trajectory '" + config.trajectoryPath + "': " + e.getMessage());
+            }
+            if (trajectory.droppedFrames() > 0) {
+                System.out.println("Trajectory dropped " + trajectory.droppedFrames() + " frames (writer fell behind).");
+            }
+        }
+        if (bodies instanceof OffHeapBodyStore) {
+            try {
+                ((OffHeapBodyStore) bodies).close();
+            } catch (IOException e) {
+                System.out.println("Could not release off-heap bodies: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the live body list (only touch it from the thread driving the ticks)
+     */
+    public List<CelestialBody> bodies() {
+        return bodies;
+    }
+
+    /**
+     * @return id the next spawned body will get
+     */
+    long nextBodyId() {
+        return nextId;
+    }
+
+    /**
+     * @return RNG states to save in a checkpoint: state and gamma of each stream in turn
+     */
+    long[] rngState() {
+        return new long[] { xEdgeRng.state(), xEdgeRng.gamma(), yEdgeRng.state(), yEdgeRng.gamma() };
+    }
+
+    /**
+     * Overwrite the tick count, RNG state and bodies with values read from a checkpoint.
+     *
+     * @param tick     saved tick count
+     * @param rng      saved RNG states from {@link #rngState()}
+     * @param nextId   saved {@link #nextBodyId()}
+     * @param restored saved bodies
+     * @throws IOException if the RNG states do not match this engine
+     */
+    void restoreState(long tick, long[] rng, long nextId, BodyStore restored) throws IOException {
+        if (rng.length != 4) throw new IOException("expected 2 RNG streams, found " + rng.length / 2);
+        this.tick = tick;
+        this.nextId = nextId;
+        xEdgeRng.setState(rng[0], rng[1]);
+        yEdgeRng.setState(rng[2], rng[3]);
+        if (bodies instanceof BodyStore) {
+            ((BodyStore) bodies).loadFrom(restored);
+        } else {
+            bodies.removeIf(body -> true);
+            for (int i = 0; i < restored.size(); i++) {
+                bodies.add(restored.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return phase timings and body counters (the viewer adds its paint times)
+     */
+    public TickMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the configuration in effect (the latest one passed to {@link #reconfigure})
+     */
+    public SimulationConfig config() {
+        return config;
+    }
+
+    /**
+     * Bytes the driving thread allocated during the last {@link #tick()}.
+     * With an array-backed list and threads = 1 this settles at 0 once the
+     * pool holds enough bodies; linked lists still allocate one node per spawn.
+     *
+     * @return allocated bytes, or 0 if the JVM cannot count them
+     */
+    public long lastTickAllocatedBytes() {
+        return lastTickAllocatedBytes;
+    }
+
+    /**
+     * @return number of completed ticks
+     */
+    public long tickCount() {
+        return tick;
+    }
+
+    /**
+     * Number of stars an edge pair spawns this tick: one with probability
+     * {@code rate}, or a Poisson draw with mean {@code rate} (spawn = poisson).
+     */
+    private int spawnCount(SplitMix64 rng, double rate) {
+        if (poissonSpawns) {
+            return rng.nextPoisson(rate);
+        }
+        return rng.nextDouble() < rate ? 1 : 0;
+    }
+
+    /**
+     * Spawn {@code count} stars from the top or bottom edge, each pushed inward vertically.
+     */
+    private void spawnXEdge(int count) {
+        SplitMix64 rng = xEdgeRng;
+        for (int i = 0; i < count; i++) {
+            boolean top = rng.nextBoolean();
+            int y = top ? 0 : config.worldHeight;
+            int x = rng.nextInt(config.worldWidth);
+            CelestialBody body = pool.acquire();
+            body.set(x, y, 0, 0, config.bodySize, config.bodyMass, Color.WHITE, false);
+            randomizeVelocity(body, rng);
+            body.velocityY = top ? Math.max(1, body.velocityY) : Math.min(-1, body.velocityY);
+            stage(body);
+        }
+    }
+
+    /**
+     * Spawn {@code count} stars from the left or right edge, each pushed inward horizontally.
+     */
+    private void spawnYEdge(int count) {
+        SplitMix64 rng = yEdgeRng;
+        for (int i = 0; i < count; i++) {
+            boolean left = rng.nextBoolean();
+            int x = left ? 0 : config.worldWidth;
+            int y = rng.nextInt(config.worldHeight);
+            CelestialBody body = pool.acquire();
+            body.set(x, y, 0, 0, config.bodySize, config.bodyMass, Color.WHITE, false);
+            randomizeVelocity(body, rng);
+            body.velocityX = left ? Math.max(1, body.velocityX) : Math.min(-1, body.velocityX);
+            stage(body);
+        }
+    }
+
+    /**
+     * Give a freshly spawned body the next id and queue it for {@link #appendSpawned()}.
+     */
+    private void stage(CelestialBody body) {
+        body.id = nextId++;
+        if (spawnedCount == spawned.length) {
+            spawned = Arrays.copyOf(spawned, spawnedCount * 2);
+        }
+        spawned[spawnedCount++] = body;
+    }
+
+    /**
+     * Append every staged body with one {@link List#addAll} call. The record
+     * stores copy the fields, so those objects go straight back to the pool.
+     */
+    private void appendSpawned() {
+        if (spawnedCount == 0) return;
+        bodies.addAll(spawned, spawnedCount);
+        metrics.addSpawned(spawnedCount);
+        if (bodies instanceof BodyRecords) {
+            for (int i = 0; i < spawnedCount; i++) {
+                pool.release(spawned[i]);
+            }
+        }
+        Arrays.fill(spawned, 0, spawnedCount, null);
+        spawnedCount = 0;
+    }
+
+    /**
+     * Give {@code body} a random non zero velocity where each component is in
+     * the closed interval [-bodyVelocity, bodyVelocity], written in place.
+     * @param body body whose velocity is overwritten
+     * @param rng  stream of the edge the body spawns from
+     */
+    private void randomizeVelocity(CelestialBody body, SplitMix64 rng) {
+        int bodyVelocity = config.bodyVelocity;
+        int vx = 0, vy = 0;
+        while (vx == 0) vx = rng.nextInt(bodyVelocity * 2 + 1) - bodyVelocity;
+        while (vy == 0) vy = rng.nextInt(bodyVelocity * 2 + 1) - bodyVelocity;
+        body.velocityX = vx;
+        body.velocityY = vy;
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer handing {@link FrameSnapshot}s from the simulation
+ * thread to the Swing EDT.
+ *
+ * The producer fills its back buffer and swaps it into the shared slot; the
+ * consumer swaps its front buffer for the shared one only when a fresh frame
+ * is waiting. Both swaps are a single {@code getAndSet} on one atomic int, so
+ * neither side ever waits for the other and a frame is never written while
+ * it is being drawn.
+ */
+public class SnapshotExchange {
+
+    /** Bit set in {@link #shared} when the buffer there has not been taken yet. */
+    private static final int FRESH = 4;
+
+    /** The three buffers; each is owned by exactly one of back, shared, front. */
+    private final FrameSnapshot[] buffers = {new FrameSnapshot(), new FrameSnapshot(), new FrameSnapshot()};
+
+    /** Index of the buffer in the middle slot, plus {@link #FRESH}. */
+    private final AtomicInteger shared = new AtomicInteger(2);
+
+    /** Producer's buffer index (simulation thread only). */
+    private int back = 0;
+
+    /** Consumer's buffer index (EDT only). */
+    private int front = 1;
+
+    /**
+     * @return the buffer the producer may fill (simulation thread only)
+     */
+    public FrameSnapshot backBuffer() {
+        return buffers[back];
+    }
+
+    /**
+     * Publish the filled back buffer and take the old shared one as the new back buffer.
+     */
+    public void publish() {
+        back = shared.getAndSet(back | FRESH) & 3;
+    }
+
+    /**
+     * @return the newest published snapshot (EDT only); stays valid until the next call
+     */
+    public FrameSnapshot latest() {
+        if ((shared.get() & FRESH) != 0) {
+            front = shared.getAndSet(front) & 3;
+        }
+        return buffers[front];
+    }
+}
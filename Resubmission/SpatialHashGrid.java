@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the plane, stored as a hash table of cells.
+ *
+ * {@link #build} buckets every point by its cell with a counting sort, so a
+ * rebuild is O(n) and allocates nothing once the arrays have grown. Cells
+ * are hashed into a power-of-two table, which keeps memory proportional to
+ * the number of points no matter how far apart they are; two cells may share
+ * a bucket, so callers must still check real distances.
+ */
+public class SpatialHashGrid {
+
+    /** Side length of a cell. */
+    private double cellSize;
+
+    /** Table size minus one (table size is a power of two). */
+    private int mask;
+
+    /** {@code start[b]..start[b+1]} is the range of {@link #items} in bucket b. */
+    private int[] start = new int[2];
+
+    /** Point indexes sorted by bucket. */
+    private int[] items = new int[0];
+
+    /** Bucket of each point, kept between the counting passes. */
+    private int[] bucketOfPoint = new int[0];
+
+    /**
+     * Bucket the first {@code n} bodies of {@code bodies}, reading their
+     * positions in place (an off-heap store is not copied).
+     *
+     * @param bodies   body rows to bucket
+     * @param n        number of rows
+     * @param cellSize cell side; at least the largest interaction distance
+     */
+    public void build(BodyRecords bodies, int n, double cellSize) {
+        this.cellSize = cellSize;
+        int tableSize = Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+        mask = tableSize - 1;
+        if (start.length < tableSize + 1) start = new int[tableSize + 1];
+        if (items.length < n) {
+            items = new int[n * 2];
+            bucketOfPoint = new int[n * 2];
+        }
+
+        Arrays.fill(start, 0, tableSize + 1, 0);
+        for (int i = 0; i < n; i++) {
+            int b = bucket(cell(bodies.positionX(i)), cell(bodies.positionY(i)));
+            bucketOfPoint[i] = b;
+            start[b + 1]++;
+        }
+        for (int b = 0; b < tableSize; b++) {      // Prefix sums turn counts into start offsets
+            start[b + 1] += start[b];
+        }
+        for (int i = 0; i < n; i++) {              // start[b] walks forward as bucket b fills ...
+            items[start[bucketOfPoint[i]]++] = i;
+        }
+        for (int b = tableSize; b > 0; b--) {      // ... so shift back by one bucket to restore it
+            start[b] = start[b - 1];
+        }
+        start[0] = 0;
+    }
+
+    /**
+     * @return cell coordinate containing {@code v}
+     */
+    public int cell(double v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    /**
+     * @return table bucket holding cell (cx, cy)
+     */
+    public int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA77;
+        return (h ^ (h >>> 15)) & mask;
+    }
+
+    /**
+     * @return first position in {@link #item(int)} order for bucket {@code b}
+     */
+    public int bucketStart(int b) {
+        return start[b];
+    }
+
+    /**
+     * @return one past the last position for bucket {@code b}
+     */
+    public int bucketEnd(int b) {
+        return start[b + 1];
+    }
+
+    /**
+     * @return point index stored at sorted position {@code k}
+     */
+    public int item(int k) {
+        return items[k];
+    }
+}
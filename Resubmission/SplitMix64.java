@@ -0,0 +1,188 @@
+/**
+ * Small deterministic random number generator (SplitMix64, the generator
+ * behind {@link java.util.SplittableRandom}, including its splitting: each
+ * {@link #split()} child walks its own Weyl sequence with its own odd gamma).
+ * Unlike {@link java.util.Random} its whole state is two longs that can be
+ * read and restored, which lets a checkpoint resume the exact same spawn sequence.
+ *
+ * Not thread-safe; give each thread its own instance, e.g. from {@link #split()}.
+ */
+public class SplitMix64 {
+
+    /** Weyl sequence increment of seeded generators (odd, derived from the golden ratio). */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Current position in the sequence. */
+    private long state;
+
+    /** This generator's Weyl sequence increment (always odd). */
+    private long gamma;
+
+    /**
+     * @param seed initial state; equal seeds give equal sequences
+     */
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(long seed, long gamma) {
+        this.state = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Seed from the clock, like {@code new Random()}.
+     */
+    public SplitMix64() {
+        this(mix(System.nanoTime() ^ System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the next 64 uniformly distributed bits
+     */
+    public long nextLong() {
+        return mix(state += gamma);
+    }
+
+    /**
+     * @return uniform double in [0, 1)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return uniform boolean
+     */
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Uniform int in [0, bound) without modulo bias (rejects the short top range).
+     *
+     * @param bound exclusive upper bound (&gt; 0)
+     * @return value in [0, bound)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        int bits, value;
+        do {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    /**
+     * Poisson-distributed count with the given mean. Small means use inversion
+     * (about mean + 1 draws); from 10 up, Hörmann's transformed rejection
+     * (PTRS), which needs about 2.3 draws whatever the mean.
+     *
+     * @param mean expected value (&gt;= 0)
+     * @return count &gt;= 0
+     */
+    public int nextPoisson(double mean) {
+        if (mean < 10) {
+            double p = Math.exp(-mean), sum = p, u = nextDouble();
+            int k = 0;
+            while (u > sum && p > 0) {
+                k++;
+                p *= mean / k;
+                sum += p;
+            }
+            return k;
+        }
+        double slam = Math.sqrt(mean), logMean = Math.log(mean);
+        double b = 0.931 + 2.53 * slam;
+        double a = -0.059 + 0.02483 * b;
+        double invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+        double vr = 0.9277 - 3.6224 / (b - 2);
+        while (true) {
+            double u = nextDouble() - 0.5, v = nextDouble();
+            double us = 0.5 - Math.abs(u);
+            long k = (long) Math.floor((2 * a / us + b) * u + mean + 0.43);
+            if (us >= 0.07 && v <= vr) return (int) k;
+            if (k < 0 || (us < 0.013 && v > us)) continue;
+            if (Math.log(v) + Math.log(invAlpha) - Math.log(a / (us * us) + b)
+                    <= -mean + k * logMean - logFactorial(k)) {
+                return (int) k;
+            }
+        }
+    }
+
+    /**
+     * Derive an independent generator the way SplittableRandom does: seeded
+     * from this one's next output, with a gamma mixed from the step after it,
+     * so one seed gives a reproducible family of streams that are not just
+     * offsets into one sequence.
+     *
+     * @return a new generator
+     */
+    public SplitMix64 split() {
+        long seed = nextLong();
+        return new SplitMix64(seed, mixGamma(state += gamma));
+    }
+
+    /**
+     * @return position in the sequence (with {@link #gamma()}, the whole generator state)
+     */
+    public long state() {
+        return state;
+    }
+
+    /**
+     * @return the Weyl sequence increment
+     */
+    public long gamma() {
+        return gamma;
+    }
+
+    /**
+     * Continue from values returned by {@link #state()} and {@link #gamma()}.
+     *
+     * @param state saved position
+     * @param gamma saved increment (made odd if it is not)
+     */
+    public void setState(long state, long gamma) {
+        this.state = state;
+        this.gamma = gamma | 1L;
+    }
+
+    /**
+     * ln(k!), summed exactly below 10 and from Stirling's series above (error &lt; 1e-10).
+     */
+    private static double logFactorial(long k) {
+        if (k < 10) {
+            double sum = 0;
+            for (int i = 2; i <= k; i++) {
+                sum += Math.log(i);
+            }
+            return sum;
+        }
+        double x = k + 1, inv = 1 / x, inv2 = inv * inv;
+        return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI)
+                + inv * (1.0 / 12 - inv2 * (1.0 / 360 - inv2 / 1260));
+    }
+
+    /**
+     * Odd gamma for a split child (SplittableRandom.mixGamma): MurmurHash3's
+     * finalizer, forced odd, with sparse bit patterns flipped to avoid weak increments.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+    /**
+     * Stafford variant 13 finalizer: scrambles a Weyl-sequence value into 64 good bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Hook run by {@link SimulationEngine} at the end of every tick, on the
+ * thread driving the simulation, while the body list is consistent.
+ */
+public interface TickListener {
+
+    /**
+     * @param engine the engine that just finished a tick
+     */
+    void afterTick(SimulationEngine engine);
+}
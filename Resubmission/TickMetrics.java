@@ -0,0 +1,90 @@
+/**
+ * Per-phase timings and body counters for a {@link SimulationEngine}.
+ * Phases are timed with {@link System#nanoTime()} into one
+ * {@link LatencyHistogram} each; the counters are cumulative since start.
+ *
+ * Timings and counters are written by the ticking thread, except
+ * {@link Phase#PAINT} which the viewer records from the EDT.
+ */
+public class TickMetrics {
+
+    /**
+     * Timed parts of a tick, plus the whole tick and the viewer's paint.
+     * The object lists and threads > 1 move and cull in one fused pass,
+     * which is recorded as STEP with no separate CULL sample.
+     */
+    public enum Phase { FORCE, STEP, CULL, COLLIDE, SPAWN, TICK, PAINT }
+
+    /** One histogram per phase, indexed by ordinal. */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+
+    /** Bodies added at the edges since start. */
+    private long spawned;
+
+    /** Bodies dropped for leaving the window since start. */
+    private long culled;
+
+    /** Bodies absorbed by collisions since start. */
+    private long merged;
+
+    public TickMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Record one sample for {@code phase}.
+     *
+     * @param phase the timed phase
+     * @param nanos elapsed nanoseconds
+     */
+    public void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * @param phase the timed phase
+     * @return the histogram collecting its samples
+     */
+    public LatencyHistogram histogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /** Forget every timing sample (counters are kept). */
+    public void resetTimings() {
+        for (LatencyHistogram h : histograms) {
+            h.reset();
+        }
+    }
+
+    /** Count {@code n} spawned bodies. */
+    public void addSpawned(int n) {
+        spawned += n;
+    }
+
+    /** Count {@code n} culled bodies. */
+    public void addCulled(int n) {
+        culled += n;
+    }
+
+    /** Count {@code n} merged-away bodies. */
+    public void addMerged(int n) {
+        merged += n;
+    }
+
+    /** @return bodies spawned since start */
+    public long spawned() {
+        return spawned;
+    }
+
+    /** @return bodies culled since start */
+    public long culled() {
+        return culled;
+    }
+
+    /** @return bodies absorbed by collisions since start */
+    public long merged() {
+        return merged;
+    }
+}
@@ -0,0 +1,297 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Frame encoding shared by {@link TrajectoryRecorder} and {@link TrajectoryReader}.
+ *
+ * Positions and velocities are quantized to multiples of {@code quantum}.
+ * Each body is then predicted from its own entry (matched by id) in the
+ * previous frame: position as last position plus last velocity, velocity,
+ * radius and color as their last values. Only the residuals are stored, as zigzag varints, one
+ * column after another. Bodies moving in a straight line cost one byte per
+ * value; a keyframe forgets the previous frame so decoding can start there.
+ *
+ * Payload: varint tick, byte keyframe, varint count, then the id column
+ * (zigzag delta from the previous id in the frame) and the x, y, vx, vy
+ * residual columns, then the radius and color residual columns. Encoder and decoder keep identical state, so the
+ * quantization error never accumulates.
+ */
+class TrajectoryCodec {
+
+    /** Quantization step for positions and velocities. */
+    private final double quantum;
+
+    /** Number of bodies in the previous frame (0 after a keyframe reset). */
+    private int previousCount;
+
+    /** Previous frame: ids and quantized values by row. */
+    private long[] previousId = new long[16];
+    private long[] previousX = new long[16], previousY = new long[16];
+    private long[] previousVX = new long[16], previousVY = new long[16];
+    private int[] previousRadius = new int[16], previousColor = new int[16];
+
+    /** Current frame's quantized values, swapped with the previous ones after each frame. */
+    private long[] currentId = new long[16];
+    private long[] currentX = new long[16], currentY = new long[16];
+    private long[] currentVX = new long[16], currentVY = new long[16];
+    private int[] currentRadius = new int[16], currentColor = new int[16];
+
+    /** Open-addressing map from previous-frame id + 1 (0 = empty slot) to row. */
+    private long[] slotKey = new long[32];
+    private int[] slotRow = new int[32];
+
+    /** Previous-frame row per current row, filled by {@link #matchRows}. */
+    private int[] match = new int[16];
+
+    /** Encoded payload of the last {@link #encode} call. */
+    private byte[] out = new byte[256];
+    private int outLength;
+
+    /**
+     * @param quantum quantization step (pixels, pixels per tick)
+     */
+    TrajectoryCodec(double quantum) {
+        this.quantum = quantum;
+    }
+
+    /**
+     * Encode {@code frame} against the previous frame into {@link #encoded()}.
+     *
+     * @param frame    frame to encode
+     * @param keyframe whether to forget the previous frame first
+     * @return payload length in bytes
+     */
+    int encode(TrajectoryFrame frame, boolean keyframe) {
+        if (keyframe) previousCount = 0;
+        int n = frame.count;
+        ensureCapacity(n);
+        outLength = 0;
+        writeVarLong(frame.tick);
+        writeByte(keyframe ? 1 : 0);
+        writeVarLong(n);
+
+        long lastId = 0;
+        for (int i = 0; i < n; i++) {
+            long id = frame.id[i];
+            currentId[i] = id;
+            writeVarLong(zigzag(id - lastId));
+            lastId = id;
+            currentX[i] = quantize(frame.positionX[i]);
+            currentY[i] = quantize(frame.positionY[i]);
+            currentVX[i] = quantize(frame.velocityX[i]);
+            currentVY[i] = quantize(frame.velocityY[i]);
+            currentRadius[i] = frame.radius[i];
+            currentColor[i] = frame.color[i];
+        }
+        int[] match = matchRows(n);
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag(currentX[i] - (j < 0 ? 0 : previousX[j] + previousVX[j])));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag(currentY[i] - (j < 0 ? 0 : previousY[j] + previousVY[j])));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag(currentVX[i] - (j < 0 ? 0 : previousVX[j])));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag(currentVY[i] - (j < 0 ? 0 : previousVY[j])));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag(currentRadius[i] - (j < 0 ? 0 : previousRadius[j])));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            writeVarLong(zigzag((long) currentColor[i] - (j < 0 ? 0 : previousColor[j])));
+        }
+        advance(n);
+        return outLength;
+    }
+
+    /**
+     * @return buffer holding the last encoded payload (first {@link #encode} result bytes)
+     */
+    byte[] encoded() {
+        return out;
+    }
+
+    /**
+     * Decode one payload into {@code frame}, continuing from the previously decoded frame.
+     *
+     * @param in    payload positioned at its first byte
+     * @param frame frame to overwrite
+     */
+    void decode(ByteBuffer in, TrajectoryFrame frame) {
+        frame.tick = readVarLong(in);
+        if (in.get() != 0) previousCount = 0;
+        int n = (int) readVarLong(in);
+        ensureCapacity(n);
+        frame.ensureCapacity(n);
+
+        long lastId = 0;
+        for (int i = 0; i < n; i++) {
+            lastId += unzigzag(readVarLong(in));
+            currentId[i] = lastId;
+        }
+        int[] match = matchRows(n);
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentX[i] = unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousX[j] + previousVX[j]);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentY[i] = unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousY[j] + previousVY[j]);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentVX[i] = unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousVX[j]);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentVY[i] = unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousVY[j]);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentRadius[i] = (int) (unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousRadius[j]));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = match[i];
+            currentColor[i] = (int) (unzigzag(readVarLong(in)) + (j < 0 ? 0 : previousColor[j]));
+        }
+        for (int i = 0; i < n; i++) {
+            frame.id[i] = currentId[i];
+            frame.positionX[i] = currentX[i] * quantum;
+            frame.positionY[i] = currentY[i] * quantum;
+            frame.velocityX[i] = currentVX[i] * quantum;
+            frame.velocityY[i] = currentVY[i] * quantum;
+            frame.radius[i] = currentRadius[i];
+            frame.color[i] = currentColor[i];
+        }
+        frame.count = n;
+        advance(n);
+    }
+
+    /**
+     * For each current row, the previous-frame row with the same id, or -1.
+     */
+    private int[] matchRows(int n) {
+        if (match.length < n) match = new int[Math.max(n, match.length * 2)];
+        for (int i = 0; i < n; i++) {
+            match[i] = previousCount == 0 ? -1 : lookup(currentId[i]);
+        }
+        return match;
+    }
+
+    /**
+     * Make the current frame the previous one and index it by id.
+     */
+    private void advance(int n) {
+        long[] t;
+        t = previousId; previousId = currentId; currentId = t;
+        t = previousX; previousX = currentX; currentX = t;
+        t = previousY; previousY = currentY; currentY = t;
+        t = previousVX; previousVX = currentVX; currentVX = t;
+        t = previousVY; previousVY = currentVY; currentVY = t;
+        int[] u;
+        u = previousRadius; previousRadius = currentRadius; currentRadius = u;
+        u = previousColor; previousColor = currentColor; currentColor = u;
+        previousCount = n;
+
+        int capacity = Integer.highestOneBit(Math.max(16, n) * 2) * 2;
+        if (slotKey.length != capacity) {
+            slotKey = new long[capacity];
+            slotRow = new int[capacity];
+        } else {
+            Arrays.fill(slotKey, 0);
+        }
+        int mask = capacity - 1;
+        for (int row = 0; row < n; row++) {
+            int slot = hash(previousId[row]) & mask;
+            while (slotKey[slot] != 0) slot = (slot + 1) & mask;
+            slotKey[slot] = previousId[row] + 1;
+            slotRow[slot] = row;
+        }
+    }
+
+    /**
+     * Previous-frame row of body {@code id}, or -1.
+     */
+    private int lookup(long id) {
+        int mask = slotKey.length - 1;
+        for (int slot = hash(id) & mask; slotKey[slot] != 0; slot = (slot + 1) & mask) {
+            if (slotKey[slot] == id + 1) return slotRow[slot];
+        }
+        return -1;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private long quantize(double value) {
+        return Math.round(value / quantum);
+    }
+
+    /**
+     * Grow the current and previous columns to {@code n} rows, keeping the previous frame.
+     */
+    private void ensureCapacity(int n) {
+        if (currentId.length >= n) return;
+        int capacity = Math.max(n, currentId.length * 2);
+        currentId = new long[capacity];
+        currentX = new long[capacity];
+        currentY = new long[capacity];
+        currentVX = new long[capacity];
+        currentVY = new long[capacity];
+        currentRadius = new int[capacity];
+        currentColor = new int[capacity];
+        previousId = Arrays.copyOf(previousId, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousVX = Arrays.copyOf(previousVX, capacity);
+        previousVY = Arrays.copyOf(previousVY, capacity);
+        previousRadius = Arrays.copyOf(previousRadius, capacity);
+        previousColor = Arrays.copyOf(previousColor, capacity);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private void writeByte(int b) {
+        if (outLength == out.length) out = Arrays.copyOf(out, out.length * 2);
+        out[outLength++] = (byte) b;
+    }
+
+    /**
+     * Append {@code v} as an unsigned LEB128 varint (7 bits per byte, high bit = more).
+     */
+    private void writeVarLong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeByte((int) v);
+    }
+
+    /**
+     * Read an unsigned LEB128 varint (also how a payload starts: the tick, then the keyframe byte).
+     */
+    static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+    }
+}
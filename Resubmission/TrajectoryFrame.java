@@ -0,0 +1,82 @@
+import java.util.Arrays;
+
+/**
+ * Id, position, velocity, radius and color of every body after one tick, as written to and
+ * read back from a trajectory file. Frames are reused: {@link #capture}
+ * and the reader overwrite them in place.
+ */
+public class TrajectoryFrame {
+
+    /** Tick the frame was taken after. */
+    public long tick;
+
+    /** Number of bodies in the frame. */
+    public int count;
+
+    /** Body ids (see {@link CelestialBody#id}). */
+    public long[] id = new long[16];
+
+    /** Center coordinates (pixels). */
+    public double[] positionX = new double[16], positionY = new double[16];
+
+    /** Velocities (pixels per tick). */
+    public double[] velocityX = new double[16], velocityY = new double[16];
+
+    /** Radii (pixels). */
+    public int[] radius = new int[16];
+
+    /** Packed ARGB colors. */
+    public int[] color = new int[16];
+
+    /**
+     * Overwrite this frame with the current state of {@code bodies}.
+     *
+     * @param bodies live bodies (read on the simulation thread)
+     * @param tick   tick number to record
+     */
+    public void capture(List<CelestialBody> bodies, long tick) {
+        int n = bodies.size();
+        ensureCapacity(n);
+        if (bodies instanceof BodyStore) {
+            BodyStore store = (BodyStore) bodies;
+            System.arraycopy(store.id(), 0, id, 0, n);
+            System.arraycopy(store.positionX(), 0, positionX, 0, n);
+            System.arraycopy(store.positionY(), 0, positionY, 0, n);
+            System.arraycopy(store.velocityX(), 0, velocityX, 0, n);
+            System.arraycopy(store.velocityY(), 0, velocityY, 0, n);
+            System.arraycopy(store.radius(), 0, radius, 0, n);
+            System.arraycopy(store.color(), 0, color, 0, n);
+        } else {
+            int i = 0;
+            for (CelestialBody body : bodies) {
+                id[i] = body.id;
+                positionX[i] = body.positionX;
+                positionY[i] = body.positionY;
+                velocityX[i] = body.velocityX;
+                velocityY[i] = body.velocityY;
+                radius[i] = body.radius;
+                color[i] = body.color.getRGB();
+                i++;
+            }
+        }
+        this.count = n;
+        this.tick = tick;
+    }
+
+    /**
+     * Make every column hold at least {@code n} rows, keeping existing values.
+     *
+     * @param n required rows
+     */
+    public void ensureCapacity(int n) {
+        if (id.length >= n) return;
+        int capacity = Math.max(n, id.length * 2);
+        id = Arrays.copyOf(id, capacity);
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        color = Arrays.copyOf(color, capacity);
+    }
+}
@@ -0,0 +1,237 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a file written by {@link TrajectoryRecorder}. {@link #seek(long, TrajectoryFrame)}
+ * jumps to the nearest keyframe through the footer index and decodes forward
+ * from there, so it never reads more than one keyframe interval of frames.
+ * A file without a footer (the recording was killed) is indexed by hopping
+ * over the frame length prefixes once, without decoding.
+ *
+ * The file is memory-mapped one window at a time and frames are decoded
+ * straight out of the mapping, so files larger than a single
+ * {@link MappedByteBuffer} (2 GB) work and reading costs no copies.
+ */
+public class TrajectoryReader implements Closeable {
+
+    /** Bytes mapped at once (a frame larger than this gets a window of its own). */
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    /** Windows start on a multiple of this. */
+    private static final long PAGE_BYTES = 4096;
+
+    /** The trajectory file. */
+    private final FileChannel channel;
+
+    /** File size in bytes. */
+    private final long size;
+
+    /** Decoder state; valid for the frame just before {@link #position}. */
+    private final TrajectoryCodec codec;
+
+    /** Quantization step the file was written with. */
+    private final double quantum;
+
+    /** Keyframe ticks, ascending, and the file offsets of those frames. */
+    private long[] keyframeTick = new long[64], keyframeOffset = new long[64];
+    private int keyframes;
+
+    /** Offset just past the last frame. */
+    private long end;
+
+    /** Tick of the last frame. */
+    private long lastTick = -1;
+
+    /** Offset of the next frame {@link #next} reads. */
+    private long position;
+
+    /** Tick of the frame just decoded, or -1 after a seek that has not decoded yet. */
+    private long decodedTick = -1;
+
+    /** Currently mapped part of the file, covering {@code [windowStart, windowEnd)}. */
+    private MappedByteBuffer window;
+    private long windowStart, windowEnd;
+
+    /**
+     * Open a trajectory file and load its keyframe index.
+     *
+     * @param path file written by {@link TrajectoryRecorder}
+     * @throws IOException if the file cannot be read or is not a trajectory
+     */
+    public TrajectoryReader(String path) throws IOException {
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            if (size < TrajectoryRecorder.HEADER_BYTES) throw new IOException("not a trajectory file");
+            ByteBuffer header = map(0, TrajectoryRecorder.HEADER_BYTES);
+            if (header.getInt() != TrajectoryRecorder.MAGIC) throw new IOException("not a trajectory file");
+            int version = header.getInt();
+            if (version != TrajectoryRecorder.VERSION) throw new IOException("unsupported trajectory version " + version);
+            quantum = header.getDouble();
+            header.getInt();                              // Keyframe interval, informational
+            codec = new TrajectoryCodec(quantum);
+            if (!readFooter()) {
+                scanFrames();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("corrupt trajectory: " + e, e);
+        }
+        position = TrajectoryRecorder.HEADER_BYTES;
+    }
+
+    /**
+     * Decode the last recorded frame at or before {@code tick} into {@code frame}.
+     * Seeking forward within the current keyframe interval continues from the
+     * last decoded frame instead of going back to the keyframe, so playback
+     * that skips frames still decodes each frame at most once.
+     *
+     * @param tick  tick to seek to
+     * @param frame frame to overwrite
+     * @return false if {@code tick} is before the first frame
+     * @throws IOException if the file cannot be read
+     */
+    public boolean seek(long tick, TrajectoryFrame frame) throws IOException {
+        int k = Arrays.binarySearch(keyframeTick, 0, keyframes, tick);
+        if (k < 0) k = -k - 2;                          // Last keyframe before tick
+        if (k < 0) return false;
+        boolean continueForward = decodedTick >= keyframeTick[k] && decodedTick < tick;
+        if (!continueForward) {
+            position = keyframeOffset[k];
+            next(frame);
+        }
+        while (position < end && peekTick(position) <= tick) {
+            next(frame);
+        }
+        return true;
+    }
+
+    /**
+     * Decode the frame after the last one read (the first frame on a fresh reader).
+     *
+     * @param frame frame to overwrite
+     * @return false at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    public boolean next(TrajectoryFrame frame) throws IOException {
+        if (position >= end) return false;
+        int length = map(position, 4).getInt();
+        codec.decode(map(position + 4, length), frame);
+        position += 4 + length;
+        decodedTick = frame.tick;
+        return true;
+    }
+
+    /**
+     * @return tick of the first frame, or -1 if the file has none
+     */
+    public long firstTick() {
+        return keyframes == 0 ? -1 : keyframeTick[0];
+    }
+
+    /**
+     * @return tick of the last frame, or -1 if the file has none
+     */
+    public long lastTick() {
+        return lastTick;
+    }
+
+    /**
+     * @return quantization step of the stored positions and velocities
+     */
+    public double quantum() {
+        return quantum;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Load the keyframe index from the footer.
+     *
+     * @return false if the file has no valid footer
+     */
+    private boolean readFooter() throws IOException {
+        if (size < TrajectoryRecorder.HEADER_BYTES + TrajectoryRecorder.TRAILER_BYTES) return false;
+        ByteBuffer trailer = map(size - TrajectoryRecorder.TRAILER_BYTES, TrajectoryRecorder.TRAILER_BYTES);
+        long last = trailer.getLong();
+        trailer.getLong();                                // Frame count, informational
+        int count = trailer.getInt();
+        long footerOffset = trailer.getLong();
+        if (trailer.getInt() != TrajectoryRecorder.INDEX_MAGIC) return false;
+        if (count < 0 || footerOffset + count * 16L + TrajectoryRecorder.TRAILER_BYTES != size) return false;
+
+        for (int k = 0; k < count; k++) {
+            ByteBuffer pair = map(footerOffset + k * 16L, 16);
+            addKeyframe(pair.getLong(), pair.getLong());
+        }
+        end = footerOffset;
+        lastTick = last;
+        return true;
+    }
+
+    /**
+     * Rebuild the index of an unfinished file by walking the length prefixes.
+     * A truncated last frame is ignored.
+     */
+    private void scanFrames() throws IOException {
+        long at = TrajectoryRecorder.HEADER_BYTES;
+        while (at + 4 <= size) {
+            int length = map(at, 4).getInt();
+            if (length <= 0 || at + 4 + length > size) break;
+            ByteBuffer head = map(at + 4, Math.min(length, 11));
+            long tick = TrajectoryCodec.readVarLong(head);
+            if (head.get() != 0) addKeyframe(tick, at);
+            lastTick = tick;
+            at += 4 + length;
+        }
+        end = at;
+    }
+
+    /**
+     * Tick of the frame starting at {@code offset}.
+     */
+    private long peekTick(long offset) throws IOException {
+        return TrajectoryCodec.readVarLong(map(offset + 4, (int) Math.min(10, end - offset - 4)));
+    }
+
+    private void addKeyframe(long tick, long offset) {
+        if (keyframes == keyframeTick.length) {
+            keyframeTick = Arrays.copyOf(keyframeTick, keyframes * 2);
+            keyframeOffset = Arrays.copyOf(keyframeOffset, keyframes * 2);
+        }
+        keyframeTick[keyframes] = tick;
+        keyframeOffset[keyframes] = offset;
+        keyframes++;
+    }
+
+    /**
+     * Return the mapped window positioned at {@code offset} with {@code length}
+     * bytes remaining, mapping a new window first if the range is not covered.
+     * The buffer is only valid until the next call.
+     */
+    private ByteBuffer map(long offset, int length) throws IOException {
+        if (offset < windowStart || offset + length > windowEnd || window == null) {
+            long start = offset - offset % PAGE_BYTES;
+            long bytes = Math.min(Math.max(WINDOW_BYTES, offset + length - start), size - start);
+            if (offset + length > start + bytes) throw new IOException("unexpected end of trajectory file");
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, bytes);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = start;
+            windowEnd = start + bytes;
+        }
+        int from = (int) (offset - windowStart);
+        window.limit(from + length).position(from);
+        return window;
+    }
+}
@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Streams every tick's body ids, positions, velocities, radii and colors
+ * to a trajectory file ({@code trajectory_path}) for offline analysis and
+ * replay.
+ *
+ * The ticking thread only copies the bodies into a frame taken from a
+ * fixed pool and queues it; a "trajectory-writer" thread encodes frames with
+ * {@link TrajectoryCodec} and writes them. When the pool is empty because the
+ * disk is behind, the tick's frame is dropped and counted instead of blocking.
+ *
+ * File layout (little-endian): header (magic "MMTR", int version, double
+ * quantum, int keyframe interval), then frames as int payload length +
+ * payload, then a footer written by {@link #close()}: one (long tick, long
+ * offset) pair per keyframe, long last tick, long frame count, int keyframe
+ * count, long footer offset, int magic "MMTI".
+ */
+public class TrajectoryRecorder implements TickListener {
+
+    /** "MMTR" read as a little-endian int. */
+    static final int MAGIC = 0x52544D4D;
+
+    /** "MMTI" read as a little-endian int. */
+    static final int INDEX_MAGIC = 0x49544D4D;
+
+    /** Format version written in the header. */
+    static final int VERSION = 2;
+
+    /** Header size in bytes. */
+    static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+
+    /** Bytes after the keyframe pairs: last tick, frame count, pair count, footer offset, magic. */
+    static final int TRAILER_BYTES = 8 + 8 + 4 + 8 + 4;
+
+    /** Marks the end of the queue for the writer thread. */
+    private static final TrajectoryFrame END = new TrajectoryFrame();
+
+    /** Output file. */
+    private final FileChannel channel;
+
+    /** Frame encoder (writer thread only). */
+    private final TrajectoryCodec codec;
+
+    /** Ticks between keyframes. */
+    private final int keyframeInterval;
+
+    /** Empty frames ready for the ticking thread. */
+    private final ArrayBlockingQueue<TrajectoryFrame> free;
+
+    /** Captured frames waiting for the writer thread. */
+    private final ArrayBlockingQueue<TrajectoryFrame> filled;
+
+    /** Encodes and writes queued frames. */
+    private final Thread writer;
+
+    /** Length prefix of each frame. */
+    private final ByteBuffer lengthPrefix = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+
+    /** Ticks and file offsets of the keyframes written so far. */
+    private long[] keyframeTick = new long[64], keyframeOffset = new long[64];
+    private int keyframes;
+
+    /** File offset of the next frame (writer thread). */
+    private long offset = HEADER_BYTES;
+
+    /** Tick of the last keyframe, or -1 before the first. */
+    private long lastKeyframeTick = -1;
+
+    /** Tick of the last frame written. */
+    private long lastTick = -1;
+
+    /** Frames written (writer thread). */
+    private long written;
+
+    /** Frames dropped because no pooled frame was free (ticking thread). */
+    private long dropped;
+
+    /** First write error, after which frames are discarded. */
+    private volatile IOException failure;
+
+    /**
+     * Create the file, write its header and start the writer thread.
+     *
+     * @param path             trajectory file to create
+     * @param quantum          position/velocity quantization step
+     * @param keyframeInterval ticks between keyframes (&gt; 0)
+     * @param bufferFrames     frames that may wait for the writer before ticks are dropped
+     * @throws IOException if the file cannot be created
+     */
+    public TrajectoryRecorder(String path, double quantum, int keyframeInterval, int bufferFrames) throws IOException {
+        this.codec = new TrajectoryCodec(quantum);
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putDouble(quantum).putInt(this.keyframeInterval).flip();
+        writeFully(header);
+
+        int frames = Math.max(1, bufferFrames);
+        free = new ArrayBlockingQueue<>(frames);
+        filled = new ArrayBlockingQueue<>(frames + 1);
+        for (int i = 0; i < frames; i++) {
+            free.add(new TrajectoryFrame());
+        }
+        writer = new Thread(this::drainQueue, "trajectory-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Copy the bodies into a pooled frame and queue it, or count a drop if none is free.
+     * @param engine the engine that just ticked
+     */
+    @Override
+    public void afterTick(SimulationEngine engine) {
+        TrajectoryFrame frame = free.poll();
+        if (frame == null) {
+            dropped++;
+            return;
+        }
+        frame.capture(engine.bodies(), engine.tickCount());
+        filled.add(frame);
+    }
+
+    /**
+     * Write the queued frames and the keyframe index, then close the file.
+     * Call once, from the ticking thread, after the last tick.
+     *
+     * @throws IOException if a frame or the index could not be written
+     */
+    public void close() throws IOException {
+        filled.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure != null) throw failure;
+            ByteBuffer footer = ByteBuffer.allocate(keyframes * 16 + TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int k = 0; k < keyframes; k++) {
+                footer.putLong(keyframeTick[k]).putLong(keyframeOffset[k]);
+            }
+            footer.putLong(lastTick).putLong(written).putInt(keyframes).putLong(offset).putInt(INDEX_MAGIC).flip();
+            writeFully(footer);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return frames dropped because the writer fell behind
+     */
+    public long droppedFrames() {
+        return dropped;
+    }
+
+    /**
+     * Writer thread: encode and write frames until {@link #END}, returning each frame to the pool.
+     */
+    private void drainQueue() {
+        try {
+            while (true) {
+                TrajectoryFrame frame = filled.take();
+                if (frame == END) return;
+                if (failure == null) {
+                    try {
+                        write(frame);
+                    } catch (IOException e) {
+                        failure = e;
+                        System.out.println("Trajectory write failed: " + e.getMessage() + ". Recording stopped.");
+                    }
+                }
+                free.add(frame);
+            }
+        } catch (InterruptedException ignored) { }
+    }
+
+    /**
+     * Encode one frame (as a keyframe when the interval has passed) and append it.
+     */
+    private void write(TrajectoryFrame frame) throws IOException {
+        boolean keyframe = lastKeyframeTick < 0 || frame.tick - lastKeyframeTick >= keyframeInterval;
+        if (keyframe) {
+            if (keyframes == keyframeTick.length) {
+                keyframeTick = Arrays.copyOf(keyframeTick, keyframes * 2);
+                keyframeOffset = Arrays.copyOf(keyframeOffset, keyframes * 2);
+            }
+            keyframeTick[keyframes] = frame.tick;
+            keyframeOffset[keyframes] = offset;
+            keyframes++;
+            lastKeyframeTick = frame.tick;
+        }
+        int length = codec.encode(frame, keyframe);
+        lengthPrefix.clear();
+        lengthPrefix.putInt(length).flip();
+        writeFully(lengthPrefix);
+        writeFully(ByteBuffer.wrap(codec.encoded(), 0, length));
+        offset += 4 + length;
+        lastTick = frame.tick;
+        written++;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Doubly linked list of array chunks ("unrolled" linked list) with head and
+ * tail pointers.
+ *
+ * Storing up to {@link #capacity} elements per node cuts the per-element
+ * node overhead to a fraction and lets index lookups skip whole chunks.
+ * The chunk capacity follows the square root of the size (a power of two,
+ * at least {@link #MIN_CHUNK_CAPACITY}): when the size grows or shrinks
+ * fourfold past it, every element is re-chunked, so there are about √n
+ * chunks of about √n elements and indexed access is O(√n). Every chunk but
+ * the tail stays at least half full: one that drops below half after a
+ * removal absorbs its successor when they fit, and otherwise borrows from it.
+ *
+ * @param <T> element type
+ */
+public class UnrolledLinkedList<T> implements List<T> {
+
+    /** Chunk capacity of small lists. */
+    static final int MIN_CHUNK_CAPACITY = 64;
+
+    /**
+     * Node holding up to {@code items.length} elements and links to its neighbours.
+     */
+    private static class Chunk<T> {
+        final T[] items;
+        int count;
+        Chunk<T> next;
+        Chunk<T> prev;
+
+        @SuppressWarnings("unchecked")
+        Chunk(int capacity) {
+            items = (T[]) new Object[capacity];
+        }
+    }
+
+    /** Capacity of every chunk: a power of two near sqrt(size). */
+    private int capacity = MIN_CHUNK_CAPACITY;
+
+    /** First chunk (or {@code null} if empty). */
+    private Chunk<T> head;
+
+    /** Last chunk (or {@code null} if empty). */
+    private Chunk<T> tail;
+
+    /** Current number of elements in the list. */
+    private int size;
+
+    /** Chunk found by the last {@link #locate(int)}. */
+    private Chunk<T> located;
+
+    /** Offset inside {@link #located} found by the last {@link #locate(int)}. */
+    private int locatedOffset;
+
+    /**
+     * Return the number of elements in the list.
+     * Runs in O(1) time.
+     *
+     * @return element count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Append an element at the tail of the list, starting a new chunk when the
+     * tail chunk is full. Runs in amortized O(1) time (re-chunking is O(n) but
+     * needs the size to quadruple first).
+     *
+     * @param element value to append
+     * @return always {@code true}
+     */
+    public boolean add(T element) {
+        fitCapacity(size + 1);
+        if (tail == null || tail.count == capacity) {
+            linkAfter(tail, new Chunk<>(capacity));
+        }
+        tail.items[tail.count++] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Append {@code count} elements, topping up the tail chunk and then
+     * filling new chunks with one arraycopy each. Runs in O(count) time.
+     *
+     * @param elements values to append, in order
+     * @param count    number of values to take from the front of {@code elements}
+     */
+    public void addAll(T[] elements, int count) {
+        fitCapacity(size + count);
+        for (int i = 0; i < count; ) {
+            if (tail == null || tail.count == capacity) {
+                linkAfter(tail, new Chunk<>(capacity));
+            }
+            int k = Math.min(count - i, capacity - tail.count);
+            System.arraycopy(elements, i, tail.items, tail.count, k);
+            tail.count += k;
+            i += k;
+        }
+        size += count;
+    }
+
+    /**
+     * Insert an element at a specific index, shifting later elements right.
+     * A full chunk is split in half first. Runs in O(√n) time.
+     *
+     * @param index   position at which to insert (0..size)
+     * @param element value to insert
+     * @throws IndexOutOfBoundsException if index not in [0, size]
+     */
+    public void add(int index, T element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (index == size) {
+            add(element);
+            return;
+        }
+        fitCapacity(size + 1);
+        locate(index);
+        Chunk<T> chunk = located;
+        int offset = locatedOffset;
+        if (chunk.count == capacity) {
+            Chunk<T> upper = new Chunk<>(capacity);
+            int half = capacity / 2;
+            System.arraycopy(chunk.items, half, upper.items, 0, capacity - half);
+            Arrays.fill(chunk.items, half, capacity, null);
+            upper.count = capacity - half;
+            chunk.count = half;
+            linkAfter(chunk, upper);
+            if (offset > half) {
+                chunk = upper;
+                offset -= half;
+            }
+        }
+        System.arraycopy(chunk.items, offset, chunk.items, offset + 1, chunk.count - offset);
+        chunk.items[offset] = element;
+        chunk.count++;
+        size++;
+    }
+
+    /**
+     * Get the element at the specified index.
+     * Runs in O(√n) time, walking whole chunks from the nearer end.
+     *
+     * @param index position to read (0..size-1)
+     * @return element at {@code index}
+     * @throws IndexOutOfBoundsException if index not in [0, size-1]
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        locate(index);
+        return located.items[locatedOffset];
+    }
+
+    /**
+     * Remove and return the element at the specified index.
+     * Runs in O(√n) time (amortized, counting the occasional re-chunk).
+     *
+     * @param index position to remove (0..size-1)
+     * @return removed element
+     * @throws IndexOutOfBoundsException if index not in [0, size-1]
+     */
+    public T remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        locate(index);
+        T out = located.items[locatedOffset];
+        removeAt(located, locatedOffset);
+        fitCapacity(size);
+        return out;
+    }
+
+    /**
+     * Remove every matching element in one pass. Survivors are packed
+     * forward into the leading chunks and emptied trailing chunks are dropped,
+     * so the list ends up with every chunk but the last one full.
+     * Runs in O(n) time.
+     *
+     * @param filter returns true for elements to remove
+     * @return number of elements removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        Chunk<T> write = head;
+        int writeOffset = 0;
+        int kept = 0;
+        for (Chunk<T> read = head; read != null; read = read.next) {
+            for (int k = 0; k < read.count; k++) {
+                T element = read.items[k];
+                if (filter.test(element)) continue;
+                if (writeOffset == capacity) {
+                    write.count = capacity;
+                    write = write.next;                  // Never passes read: survivors <= elements read
+                    writeOffset = 0;
+                }
+                write.items[writeOffset++] = element;
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        size = kept;
+        if (kept == 0) {
+            head = tail = null;
+            return removed;
+        }
+        Arrays.fill(write.items, writeOffset, capacity, null);
+        write.count = writeOffset;
+        write.next = null;                               // Drop the emptied trailing chunks
+        tail = write;
+        fitCapacity(size);
+        return removed;
+    }
+
+    /**
+     * Return a forward iterator over the elements.
+     * Each step runs in O(1) time; remove() shifts within one chunk.
+     *
+     * @return iterator starting at the head
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Point {@link #located}/{@link #locatedOffset} at {@code index},
+     * skipping whole chunks from the nearer end.
+     *
+     * @param index element position (0..size-1)
+     */
+    private void locate(int index) {
+        if (index < size / 2) {
+            Chunk<T> chunk = head;
+            while (index >= chunk.count) {
+                index -= chunk.count;
+                chunk = chunk.next;
+            }
+            located = chunk;
+            locatedOffset = index;
+        } else {
+            Chunk<T> chunk = tail;
+            int fromEnd = size - 1 - index;
+            while (fromEnd >= chunk.count) {
+                fromEnd -= chunk.count;
+                chunk = chunk.prev;
+            }
+            located = chunk;
+            locatedOffset = chunk.count - 1 - fromEnd;
+        }
+    }
+
+    /**
+     * Remove the element at {@code offset} in {@code chunk}, unlinking the chunk
+     * if it empties and refilling it from its successor if it drops below half full.
+     */
+    private void removeAt(Chunk<T> chunk, int offset) {
+        System.arraycopy(chunk.items, offset + 1, chunk.items, offset, chunk.count - offset - 1);
+        chunk.items[--chunk.count] = null;
+        size--;
+        if (chunk.count == 0) {
+            unlink(chunk);
+        } else if (chunk.count < capacity / 2) {
+            refill(chunk);
+        }
+    }
+
+    /**
+     * Top up an under-full {@code chunk} from {@code chunk.next}: take all of it
+     * if the two fit in one chunk, otherwise move enough of its front elements
+     * to leave both at least half full. Elements already in {@code chunk} keep
+     * their offsets, so an iterator on it stays valid.
+     */
+    private void refill(Chunk<T> chunk) {
+        Chunk<T> next = chunk.next;
+        if (next == null) return;                        // The tail may be under-full
+        if (chunk.count + next.count <= capacity) {
+            System.arraycopy(next.items, 0, chunk.items, chunk.count, next.count);
+            chunk.count += next.count;
+            unlink(next);
+            return;
+        }
+        int k = (next.count - chunk.count) / 2;          // Both end up with at least sum / 2 >= capacity / 2
+        System.arraycopy(next.items, 0, chunk.items, chunk.count, k);
+        chunk.count += k;
+        System.arraycopy(next.items, k, next.items, 0, next.count - k);
+        Arrays.fill(next.items, next.count - k, next.count, null);
+        next.count -= k;
+    }
+
+    /**
+     * Re-chunk to the capacity for {@code expectedSize} once the size has moved
+     * fourfold away from the current one (√n has doubled or halved).
+     */
+    private void fitCapacity(int expectedSize) {
+        long square = (long) capacity * capacity;
+        if (expectedSize > 4 * square || (capacity > MIN_CHUNK_CAPACITY && 16L * expectedSize < square)) {
+            rechunk(capacityFor(expectedSize));
+        }
+    }
+
+    /**
+     * @return the smallest power of two at least {@link #MIN_CHUNK_CAPACITY} whose square reaches {@code n}
+     */
+    private static int capacityFor(int n) {
+        int c = MIN_CHUNK_CAPACITY;
+        while ((long) c * c < n) {
+            c <<= 1;
+        }
+        return c;
+    }
+
+    /**
+     * Copy every element, in order, into full chunks of {@code newCapacity}. Runs in O(n) time.
+     */
+    private void rechunk(int newCapacity) {
+        Chunk<T> old = head;
+        capacity = newCapacity;
+        head = tail = null;
+        for (; old != null; old = old.next) {
+            for (int i = 0; i < old.count; ) {
+                if (tail == null || tail.count == capacity) {
+                    linkAfter(tail, new Chunk<>(capacity));
+                }
+                int k = Math.min(old.count - i, capacity - tail.count);
+                System.arraycopy(old.items, i, tail.items, tail.count, k);
+                tail.count += k;
+                i += k;
+            }
+        }
+    }
+
+    /**
+     * Link {@code chunk} after {@code previous} ({@code null} means at the head).
+     */
+    private void linkAfter(Chunk<T> previous, Chunk<T> chunk) {
+        chunk.prev = previous;
+        chunk.next = previous == null ? head : previous.next;
+        if (chunk.next != null) {
+            chunk.next.prev = chunk;
+        } else {
+            tail = chunk;
+        }
+        if (previous != null) {
+            previous.next = chunk;
+        } else {
+            head = chunk;
+        }
+    }
+
+    /**
+     * Detach {@code chunk} from its neighbours and fix head/tail.
+     */
+    private void unlink(Chunk<T> chunk) {
+        if (chunk.prev != null) {
+            chunk.prev.next = chunk.next;
+        } else {
+            head = chunk.next;
+        }
+        if (chunk.next != null) {
+            chunk.next.prev = chunk.prev;
+        } else {
+            tail = chunk.prev;
+        }
+    }
+
+    /**
+     * Cursor over (chunk, offset) pairs; remove() deletes in place and, because
+     * refills only pull later elements into the current chunk, stays valid.
+     * It never re-chunks; the next add or remove through the list does that.
+     */
+    private class Itr implements Iterator<T> {
+        /** Chunk holding the next element. */
+        private Chunk<T> chunk = head;
+
+        /** Offset of the next element in {@link #chunk}. */
+        private int offset;
+
+        /** Whether remove() is allowed (next() called since the last remove). */
+        private boolean canRemove;
+
+        public boolean hasNext() {
+            while (chunk != null && offset >= chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            return chunk != null;
+        }
+
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            canRemove = true;
+            return chunk.items[offset++];
+        }
+
+        public void remove() {
+            if (!canRemove) throw new IllegalStateException();
+            canRemove = false;
+            offset--;
+            Chunk<T> current = chunk;
+            Chunk<T> after = current.next;
+            removeAt(current, offset);
+            if (current.count == 0) {                    // Unlinked: continue at its successor
+                chunk = after;
+                offset = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Velocity Verlet (kick-drift-kick leapfrog): half kick, full move, half
+ * kick with the accelerations at the new positions. Second order and
+ * symplectic. Those end accelerations are handed back for the next substep,
+ * so k substeps cost k + 1 force evaluations.
+ */
+public class VerletIntegrator implements Integrator {
+
+    public boolean step(double[] x, double[] y, double[] vx, double[] vy, int n, double dt,
+                        double[] ax, double[] ay, Field field) {
+        double half = dt * 0.5;
+        for (int i = 0; i < n; i++) {
+            vx[i] += ax[i] * half;
+            vy[i] += ay[i] * half;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+        field.evaluate(x, y, ax, ay);
+        for (int i = 0; i < n; i++) {
+            vx[i] += ax[i] * half;
+            vy[i] += ay[i] * half;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package massivemotion;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link Kernels} against the per-object {@link CelestialBody#step()} and
+ * {@link CelestialBody#isOffscreen} loops they replace, over {@code size}
+ * bodies. Forks start with the incubator module, and setup fails if the
+ * requested kernels did not load, so "vector" never silently times scalar.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+
+    /** Bodies whose all-pairs force is summed per {@link #directForces} call. */
+    private static final int FORCE_ROWS = 16;
+
+    @Param({"scalar", "vector"})
+    public String simd;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Kernels under test. */
+    private Kernels kernels;
+
+    /** Column layout of the bodies. */
+    private double[] x, y, vx, vy, mass, ax, ay;
+    private int[] radius;
+
+    /** The same bodies as objects. */
+    private CelestialBody[] objects;
+
+    /** Offscreen flags output. */
+    private boolean[] marks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernels = Kernels.create(simd);
+        if (!kernels.name().equals(simd)) {
+            throw new IllegalStateException(simd + " kernels did not load");
+        }
+        Random rng = new Random(42);
+        x = new double[size];
+        y = new double[size];
+        vx = new double[size];
+        vy = new double[size];
+        mass = new double[size];
+        radius = new int[size];
+        objects = new CelestialBody[size];
+        marks = new boolean[size];
+        ax = new double[FORCE_ROWS];
+        ay = new double[FORCE_ROWS];
+        for (int i = 0; i < size; i++) {
+            x[i] = rng.nextInt(4096) - 16;          // A few bodies start just outside the world
+            y[i] = rng.nextInt(4096) - 16;
+            vx[i] = (rng.nextInt(7) - 3) * 1e-6;    // Slow enough that the offscreen share stays put
+            vy[i] = (rng.nextInt(7) - 3) * 1e-6;
+            mass[i] = 1E21;
+            radius[i] = 10;
+            objects[i] = new CelestialBody(x[i], y[i], vx[i], vy[i], radius[i], mass[i], Color.WHITE, false);
+        }
+    }
+
+    @Benchmark
+    public CelestialBody[] objectStep() {
+        for (CelestialBody body : objects) {
+            body.step();
+        }
+        return objects;
+    }
+
+    @Benchmark
+    public double[] step() {
+        kernels.step(x, y, vx, vy, 0, size);
+        return x;
+    }
+
+    @Benchmark
+    public boolean[] objectOffscreen() {
+        for (int i = 0; i < size; i++) {
+            marks[i] = objects[i].isOffscreen(4096, 4096);
+        }
+        return marks;
+    }
+
+    @Benchmark
+    public boolean[] markOffscreen() {
+        kernels.markOffscreen(x, y, radius, 0, size, 4096, 4096, marks);
+        return marks;
+    }
+
+    /** Direct-solver force on the first {@link #FORCE_ROWS} bodies from all {@code size}. */
+    @Benchmark
+    public double[] directForces() {
+        kernels.accelerations(x, y, mass, size, 1E-27, 25, 0, FORCE_ROWS, ax, ay);
+        return ax;
+    }
+}
@@ -0,0 +1,102 @@
+package massivemotion;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-operation throughput of every {@link List} backend at a fixed size.
+ * Mutating operations are paired with their inverse so the list stays at
+ * {@code size} elements for the whole run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+
+    @Param({"arraylist", "arraydequelist", "linkedlist", "dummyheadlinkedlist", "doublylinkedlist", "unrolledlinkedlist", "soa", "offheap"})
+    public String list;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /** List under test, holding {@code size} bodies. */
+    private List<CelestialBody> bodies;
+
+    /** Body used for inserts. */
+    private CelestialBody probe;
+
+    /** Pre-drawn random indexes in {@code [0, size)}, so the RNG stays out of the timing. */
+    private int[] indexes;
+
+    /** Position in {@link #indexes}. */
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rng = new Random(42);
+        CelestialBody[] fill = new CelestialBody[size];
+        for (int i = 0; i < size; i++) {
+            fill[i] = new CelestialBody(rng.nextInt(1024), rng.nextInt(768), 1, 1, 10, 1E21, Color.WHITE, false);
+        }
+        bodies = SimulationEngine.createList(list);
+        bodies.addAll(fill, size);                  // One walk to the tail; add() in a loop is O(n^2) on the singly linked lists
+        probe = new CelestialBody(0, 0, 1, 1, 10, 1E21, Color.WHITE, false);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = rng.nextInt(size);
+        }
+    }
+
+    /** Next random index. */
+    private int nextIndex() {
+        cursor = (cursor + 1) & (indexes.length - 1);
+        return indexes[cursor];
+    }
+
+    /** add(T) followed by remove(size - 1). */
+    @Benchmark
+    public CelestialBody add() {
+        bodies.add(probe);
+        return bodies.remove(bodies.size() - 1);
+    }
+
+    /** add(i, T) at a random index followed by remove(i). */
+    @Benchmark
+    public CelestialBody addAtIndex() {
+        int i = nextIndex();
+        bodies.add(i, probe);
+        return bodies.remove(i);
+    }
+
+    /** get(i) at a random index. */
+    @Benchmark
+    public CelestialBody get() {
+        return bodies.get(nextIndex());
+    }
+
+    /** remove(i) at a random index followed by add(i, removed). */
+    @Benchmark
+    public CelestialBody remove() {
+        int i = nextIndex();
+        CelestialBody removed = bodies.remove(i);
+        bodies.add(i, removed);
+        return removed;
+    }
+}
@@ -0,0 +1,75 @@
+package massivemotion;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A full {@link SimulationEngine#tick()} (step + cull + spawn) with
+ * {@code size} bodies scattered across the window. The population is
+ * rebuilt before every iteration so culling cannot drain it over a run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({"arraylist", "arraydequelist", "linkedlist", "dummyheadlinkedlist", "doublylinkedlist", "unrolledlinkedlist", "soa", "offheap"})
+    public String list;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /** Engine under test. */
+    private SimulationEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        SimulationConfig config = new SimulationConfig();
+        config.list = list;
+        config.worldWidth = 4096;
+        config.worldHeight = 4096;
+        config.starX = 2048;
+        config.starY = 2048;
+        config.genX = 1;
+        config.genY = 1;
+        engine = new SimulationEngine(config);
+
+        Random rng = new Random(42);
+        CelestialBody[] fill = new CelestialBody[Math.max(0, size - 1)];
+        for (int i = 0; i < fill.length; i++) {
+            int vx = rng.nextInt(7) - 3, vy = rng.nextInt(7) - 3;
+            fill[i] = new CelestialBody(rng.nextInt(4096), rng.nextInt(4096), vx, vy,
+                    config.bodySize, config.bodyMass, Color.WHITE, false);
+        }
+        engine.bodies().addAll(fill, fill.length);  // One walk to the tail; add() in a loop is O(n^2) on the singly linked lists
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public int tick() {
+        engine.tick();
+        return engine.bodies().size();
+    }
+}
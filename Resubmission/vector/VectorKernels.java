@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Kernels} on the incubating Vector API, using the widest vectors the
+ * CPU has (4 doubles with AVX2, 8 with AVX-512) and {@link ScalarKernels}
+ * for the leftover rows. Nothing refers to this class directly:
+ * {@link Kernels#create} loads it by name. It lives in vector/ so that
+ * {@code javac *.java} builds the rest without the incubator module, and is
+ * compiled on its own next to the other classes with
+ * {@code javac --add-modules jdk.incubator.vector -cp . -d . vector/VectorKernels.java}.
+ *
+ * step and markOffscreen give exactly the scalar results (markOffscreen only
+ * tests whole vectors and re-tests the rare ones with a body outside); the
+ * force sum is accumulated lane by lane, so it differs from the scalar order
+ * in the last bits.
+ */
+public class VectorKernels implements Kernels {
+
+    /** Double lanes per operation. */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Int lanes matching {@link #DOUBLES} one to one, for the radius column. */
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /** Handles the rows after the last full vector. */
+    private final ScalarKernels tail = new ScalarKernels();
+
+    public void step(double[] x, double[] y, double[] vx, double[] vy, int from, int to) {
+        int lanes = DOUBLES.length();
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (int i = from; i < bound; i += lanes) {
+            DoubleVector.fromArray(DOUBLES, x, i).add(DoubleVector.fromArray(DOUBLES, vx, i)).intoArray(x, i);
+            DoubleVector.fromArray(DOUBLES, y, i).add(DoubleVector.fromArray(DOUBLES, vy, i)).intoArray(y, i);
+        }
+        tail.step(x, y, vx, vy, bound, to);
+    }
+
+    public void markOffscreen(double[] x, double[] y, int[] radius, int from, int to,
+                              int width, int height, boolean[] marks) {
+        int lanes = DOUBLES.length();
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (int i = from; i < bound; i += lanes) {
+            DoubleVector xv = DoubleVector.fromArray(DOUBLES, x, i);
+            DoubleVector yv = DoubleVector.fromArray(DOUBLES, y, i);
+            DoubleVector r = (DoubleVector) IntVector.fromArray(INTS, radius, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0);
+            boolean anyOutside = xv.add(r).compare(VectorOperators.LT, 0)
+                    .or(xv.sub(r).compare(VectorOperators.GT, width))
+                    .or(yv.add(r).compare(VectorOperators.LT, 0))
+                    .or(yv.sub(r).compare(VectorOperators.GT, height))
+                    .anyTrue();
+            if (anyOutside) {                   // Rare; storing the mask itself allocates on JDK 17
+                tail.markOffscreen(x, y, radius, i, i + lanes, width, height, marks);
+            } else {
+                Arrays.fill(marks, i, i + lanes, false);
+            }
+        }
+        tail.markOffscreen(x, y, radius, bound, to, width, height, marks);
+    }
+
+    public void accelerations(double[] x, double[] y, double[] mass, int n, double g, double softening2,
+                              int from, int to, double[] ax, double[] ay) {
+        int lanes = DOUBLES.length();
+        int bound = DOUBLES.loopBound(n);
+        for (int i = from; i < to; i++) {
+            double xi = x[i], yi = y[i];
+            DoubleVector sumX = DoubleVector.zero(DOUBLES), sumY = DoubleVector.zero(DOUBLES);
+            for (int j = 0; j < bound; j += lanes) {
+                DoubleVector dx = DoubleVector.fromArray(DOUBLES, x, j).sub(xi);
+                DoubleVector dy = DoubleVector.fromArray(DOUBLES, y, j).sub(yi);
+                DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(softening2);
+                DoubleVector s = DoubleVector.fromArray(DOUBLES, mass, j).mul(g).div(d2.mul(d2.sqrt()));
+                if (i >= j && i < j + lanes) {
+                    s = s.blend(0.0, DOUBLES.indexInRange(j - i, 1));   // No self-force, even unsoftened
+                }
+                sumX = sumX.add(s.mul(dx));
+                sumY = sumY.add(s.mul(dy));
+            }
+            double accX = sumX.reduceLanes(VectorOperators.ADD);
+            double accY = sumY.reduceLanes(VectorOperators.ADD);
+            for (int j = bound; j < n; j++) {
+                if (j == i) continue;
+                double dx = x[j] - xi;
+                double dy = y[j] - yi;
+                double d2 = dx * dx + dy * dy + softening2;
+                double s = g * mass[j] / (d2 * Math.sqrt(d2));
+                accX += s * dx;
+                accY += s * dy;
+            }
+            ax[i] = accX;
+            ay[i] = accY;
+        }
+    }
+
+    public String name() {
+        return "vector";
+    }
+}